@@ -0,0 +1,273 @@
+package algorithms;
+
+import graph.Edge;
+import graph.Graph;
+import metrics.Metrics;
+import metrics.Metrics.Phase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Minimum spanning tree of points in the plane under Euclidean distance, without the
+// complete graph. Borůvka rounds over a k-d tree find, for every component, the nearest
+// point outside it: a tree node whose points all lie in the querying component is
+// skipped, as is any node farther away than the component's best so far, and a point
+// whose nearest neighbour from an earlier round is still outside its component needs
+// no search at all. Each round at least halves the number of components, and the
+// edges picked are exactly the MST edges (ties broken by (distance, lower id, higher
+// id), so a round never closes a cycle), and they are added to G, which ends up
+// holding the tree and nothing else.
+public class EuclideanMST {
+    private static final int LEAF_SIZE = 8;
+
+    private final List<Edge> mst = new ArrayList<>();
+    private double totalCost = 0.0;
+    private final int rounds;
+
+    // G holds one vertex per point and no edges; the tree edges are added to it.
+    public EuclideanMST(Graph G, double[] x, double[] y, Metrics metrics) {
+        if (x.length != G.V() || y.length != G.V()) {
+            throw new IllegalArgumentException("Expected " + G.V() + " points, got " + x.length + " x and " + y.length + " y");
+        }
+        if (G.E() != 0) throw new IllegalArgumentException("Graph must start without edges");
+        rounds = metrics.time(Phase.GRAPH_BUILD, () -> addTreeEdges(G, x, y));
+        for (Edge e : G.edges()) {
+            mst.add(e);
+            totalCost += e.weight();
+        }
+    }
+
+    public List<Edge> getMST() { return mst; }
+
+    public double totalCost() { return totalCost; }
+
+    public int rounds() { return rounds; }
+
+    private static int addTreeEdges(Graph G, double[] x, double[] y) {
+        int n = x.length;
+        if (n < 2) return 0;
+        KdTree tree = new KdTree(x, y);
+        int[] uf = new int[n];
+        for (int i = 0; i < n; i++) uf[i] = i;
+        int[] comp = new int[n];          // component of the point at tree position k
+        double[] bestD = new double[n];   // per component root: squared distance, endpoints
+        int[] bestA = new int[n], bestB = new int[n];
+
+        // per tree position: the point's nearest neighbour outside its component when
+        // nnB >= 0, otherwise a lower bound nnD on that distance. Components only grow,
+        // so a neighbour that is still outside stays the nearest and bounds only rise.
+        double[] nnD = new double[n];
+        int[] nnB = new int[n];
+        Arrays.fill(nnB, -1);
+
+        int components = n, rounds = 0;
+        while (components > 1) {
+            rounds++;
+            for (int k = 0; k < n; k++) {
+                int c = find(uf, tree.id[k]);
+                comp[k] = c;
+                bestD[c] = Double.POSITIVE_INFINITY;
+                bestA[c] = -1;
+            }
+            tree.label(comp);
+            // cached neighbours first, so the searches start with tight component bounds
+            for (int k = 0; k < n; k++) {
+                int b = nnB[k];
+                if (b < 0) continue;
+                if (find(uf, b) == comp[k]) { nnB[k] = -1; continue; }
+                offer(comp[k], nnD[k], tree.id[k], b, bestD, bestA, bestB);
+            }
+            // tree order keeps consecutive queries close together
+            for (int k = 0; k < n; k++) {
+                int c = comp[k];
+                if (nnB[k] >= 0 || nnD[k] > bestD[c]) continue;
+                tree.nearestOutside(k, comp, bestD[c], nnD, nnB);
+                if (nnB[k] >= 0) offer(c, nnD[k], tree.id[k], nnB[k], bestD, bestA, bestB);
+            }
+            for (int k = 0; k < n; k++) {
+                int c = comp[k];
+                if (bestA[c] < 0) continue;
+                int a = bestA[c], b = bestB[c];
+                bestA[c] = -1;
+                int ra = find(uf, a), rb = find(uf, b);
+                if (ra == rb) continue;   // the other side picked the same edge
+                uf[ra] = rb;
+                components--;
+                G.addEdge(a, b, Math.sqrt(bestD[c]));
+            }
+        }
+        return rounds;
+    }
+
+    private static void offer(int c, double d, int a, int b, double[] bestD, int[] bestA, int[] bestB) {
+        if (d < bestD[c] || (d == bestD[c] && lighter(a, b, bestA[c], bestB[c]))) {
+            bestD[c] = d;
+            bestA[c] = a;
+            bestB[c] = b;
+        }
+    }
+
+    // Tie-break between equally long edges (a, b) and (c, d) by sorted endpoints.
+    private static boolean lighter(int a, int b, int c, int d) {
+        if (c < 0) return true;
+        int p = Math.min(a, b), q = Math.min(c, d);
+        if (p != q) return p < q;
+        return Math.max(a, b) < Math.max(c, d);
+    }
+
+    private static int find(int[] uf, int x) {
+        while (uf[x] != x) {
+            uf[x] = uf[uf[x]];
+            x = uf[x];
+        }
+        return x;
+    }
+
+    // Static 2-d tree with points stored in tree order. Nodes are numbered in preorder,
+    // so every child has a larger index than its parent.
+    private static final class KdTree {
+        final int[] id;       // original index of the point at tree position k
+        final double[] px, py;
+        final int[] lo, hi, left, right, comp;
+        final double[] minX, maxX, minY, maxY;
+        int nodes = 0;
+        private final int[] stack;
+
+        KdTree(double[] x, double[] y) {
+            int n = x.length;
+            id = new int[n];
+            px = x.clone();
+            py = y.clone();
+            for (int i = 0; i < n; i++) id[i] = i;
+            // leaves hold 4..8 points once n > 8, so there are fewer than n / 2 + 2 nodes
+            int cap = n / 2 + 2;
+            lo = new int[cap];
+            hi = new int[cap];
+            left = new int[cap];
+            right = new int[cap];
+            comp = new int[cap];
+            minX = new double[cap];
+            maxX = new double[cap];
+            minY = new double[cap];
+            maxY = new double[cap];
+            build(0, n);
+            stack = new int[2 * (32 - Integer.numberOfLeadingZeros(n)) + 8];
+        }
+
+        private int build(int from, int to) {
+            int node = nodes++;
+            lo[node] = from;
+            hi[node] = to;
+            double x0 = Double.POSITIVE_INFINITY, x1 = Double.NEGATIVE_INFINITY;
+            double y0 = Double.POSITIVE_INFINITY, y1 = Double.NEGATIVE_INFINITY;
+            for (int k = from; k < to; k++) {
+                x0 = Math.min(x0, px[k]);
+                x1 = Math.max(x1, px[k]);
+                y0 = Math.min(y0, py[k]);
+                y1 = Math.max(y1, py[k]);
+            }
+            minX[node] = x0;
+            maxX[node] = x1;
+            minY[node] = y0;
+            maxY[node] = y1;
+            if (to - from <= LEAF_SIZE) {
+                left[node] = right[node] = -1;
+                return node;
+            }
+            int mid = (from + to) >>> 1;
+            select(from, to - 1, mid, x1 - x0 >= y1 - y0);
+            left[node] = build(from, mid);
+            right[node] = build(mid, to);
+            return node;
+        }
+
+        // Quickselect: afterwards position k holds the point that sorting by the split
+        // coordinate would put there, with smaller ones before it and larger ones after.
+        private void select(int l, int r, int k, boolean byX) {
+            double[] c = byX ? px : py;
+            while (l < r) {
+                double pivot = c[(l + r) >>> 1];
+                int i = l, j = r;
+                while (i <= j) {
+                    while (c[i] < pivot) i++;
+                    while (c[j] > pivot) j--;
+                    if (i <= j) swap(i++, j--);
+                }
+                if (k <= j) r = j;
+                else if (k >= i) l = i;
+                else return;
+            }
+        }
+
+        private void swap(int a, int b) {
+            double t = px[a]; px[a] = px[b]; px[b] = t;
+            t = py[a]; py[a] = py[b]; py[b] = t;
+            int s = id[a]; id[a] = id[b]; id[b] = s;
+        }
+
+        // comp[node] = the component shared by all of the node's points, or -1.
+        void label(int[] pointComp) {
+            for (int node = nodes - 1; node >= 0; node--) {
+                if (left[node] < 0) {
+                    int c = pointComp[lo[node]];
+                    for (int k = lo[node] + 1; k < hi[node] && c >= 0; k++) {
+                        if (pointComp[k] != c) c = -1;
+                    }
+                    comp[node] = c;
+                } else {
+                    int c = comp[left[node]];
+                    comp[node] = c == comp[right[node]] ? c : -1;
+                }
+            }
+        }
+
+        // Nearest point to position q outside its component among those at squared
+        // distance <= limit, ties by the same order as lighter(). Stores it in nnD[q] and
+        // nnB[q]; without one, nnB[q] = -1 and nnD[q] = limit, a lower bound.
+        void nearestOutside(int q, int[] pointComp, double limit, double[] nnD, int[] nnB) {
+            int c = pointComp[q];
+            double qx = px[q], qy = py[q];
+            int a = id[q];
+            double best = limit;
+            int bestB = -1;
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                int node = stack[--top];
+                if (comp[node] == c || boxDist(node, qx, qy) > best) continue;
+                if (left[node] < 0) {
+                    for (int k = lo[node]; k < hi[node]; k++) {
+                        if (pointComp[k] == c) continue;
+                        double dx = px[k] - qx, dy = py[k] - qy;
+                        double d = dx * dx + dy * dy;
+                        if (d > best) continue;
+                        int b = id[k];
+                        if (d < best || bestB < 0 || lighter(a, b, a, bestB)) {
+                            best = d;
+                            bestB = b;
+                        }
+                    }
+                    continue;
+                }
+                // visit the nearer child first: push it last
+                int l = left[node], r = right[node];
+                if (boxDist(l, qx, qy) <= boxDist(r, qx, qy)) {
+                    stack[top++] = r;
+                    stack[top++] = l;
+                } else {
+                    stack[top++] = l;
+                    stack[top++] = r;
+                }
+            }
+            nnD[q] = best;
+            nnB[q] = bestB;
+        }
+
+        private double boxDist(int node, double qx, double qy) {
+            double dx = Math.max(0, Math.max(minX[node] - qx, qx - maxX[node]));
+            double dy = Math.max(0, Math.max(minY[node] - qy, qy - maxY[node]));
+            return dx * dx + dy * dy;
+        }
+    }
+}
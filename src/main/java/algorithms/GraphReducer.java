@@ -0,0 +1,141 @@
+package algorithms;
+
+import graph.Edge;
+import graph.Graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Shrinks a graph before an MST run with three rules that never change the result:
+// self-loops are dropped, parallel edges keep only their lightest member (by weight,
+// then edge id, the order Kruskal uses), and a vertex of degree one is removed with
+// its edge, which every spanning forest must contain. Removing leaves cascades, so
+// trees hanging off the graph disappear entirely. The reduced graph is relabelled
+// 0..V'-1 with its edges in original id order; expand() turns its MST back into the
+// original graph's edges.
+public class GraphReducer {
+    private final Graph reduced;
+    private final List<Edge> forced = new ArrayList<>();
+    private final Map<Edge, Edge> original;
+    private final int[] originalVertex;
+    private double forcedCost = 0.0;
+    private int selfLoops = 0;
+    private int parallelEdges = 0;
+    private int leafVertices = 0;
+
+    public GraphReducer(Graph G) {
+        int V = G.V(), E = G.E();
+
+        // lightest edge per unordered pair: open addressing on (min << 32 | max)
+        int size = Integer.highestOneBit(Math.max(4, E * 2 - 1)) << 1;
+        long[] keys = new long[size];
+        int[] slot = new int[size];
+        Arrays.fill(slot, -1);
+        int shift = 64 - Integer.numberOfTrailingZeros(size);
+        for (int id = 0; id < E; id++) {
+            Edge e = G.edge(id);
+            int v = e.either(), w = e.other(v);
+            if (v == w) { selfLoops++; continue; }
+            long key = (long) Math.min(v, w) << 32 | Math.max(v, w);
+            int i = (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+            while (slot[i] >= 0 && keys[i] != key) i = (i + 1) & (size - 1);
+            if (slot[i] < 0) {
+                keys[i] = key;
+                slot[i] = id;
+                continue;
+            }
+            parallelEdges++;
+            // ids arrive in increasing order, so only a strictly lighter weight wins
+            if (e.weight() < G.edge(slot[i]).weight()) slot[i] = id;
+        }
+
+        boolean[] kept = new boolean[E];
+        int[] deg = new int[V];
+        for (int i = 0; i < size; i++) {
+            if (slot[i] < 0) continue;
+            Edge e = G.edge(slot[i]);
+            kept[slot[i]] = true;
+            deg[e.either()]++;
+            deg[e.other(e.either())]++;
+        }
+
+        // incident kept edges in CSR form
+        int[] start = new int[V + 1];
+        for (int v = 0; v < V; v++) start[v + 1] = start[v] + deg[v];
+        int[] incident = new int[start[V]];
+        int[] fill = Arrays.copyOf(start, V);
+        for (int id = 0; id < E; id++) {
+            if (!kept[id]) continue;
+            Edge e = G.edge(id);
+            int v = e.either();
+            incident[fill[v]++] = id;
+            incident[fill[e.other(v)]++] = id;
+        }
+
+        boolean[] removed = new boolean[V];
+        int[] queue = new int[V];
+        int head = 0, tail = 0;
+        for (int v = 0; v < V; v++) if (deg[v] == 1) queue[tail++] = v;
+        while (head < tail) {
+            int v = queue[head++];
+            if (deg[v] != 1) continue;   // its partner leaf went first and left it isolated
+            int id = -1;
+            for (int j = start[v]; j < start[v + 1]; j++) {
+                if (kept[incident[j]]) { id = incident[j]; break; }
+            }
+            Edge e = G.edge(id);
+            kept[id] = false;
+            forced.add(e);
+            forcedCost += e.weight();
+            removed[v] = true;
+            deg[v] = 0;
+            leafVertices++;
+            int w = e.other(v);
+            if (--deg[w] == 1) queue[tail++] = w;
+        }
+
+        int[] newId = new int[V];
+        int n = 0;
+        for (int v = 0; v < V; v++) newId[v] = removed[v] ? -1 : n++;
+        originalVertex = new int[n];
+        for (int v = 0; v < V; v++) if (!removed[v]) originalVertex[newId[v]] = v;
+
+        reduced = new Graph(n);
+        original = new IdentityHashMap<>();
+        for (int id = 0; id < E; id++) {
+            if (!kept[id]) continue;
+            Edge e = G.edge(id);
+            int v = e.either(), w = e.other(v);
+            Edge r = new Edge(newId[v], newId[w], e.weight());
+            reduced.addEdge(r);
+            original.put(r, e);
+        }
+    }
+
+    public Graph reduced() { return reduced; }
+
+    // Original edges of the MST: the forced leaf edges plus the originals of reducedMst.
+    public List<Edge> expand(List<Edge> reducedMst) {
+        List<Edge> mst = new ArrayList<>(forced.size() + reducedMst.size());
+        mst.addAll(forced);
+        for (Edge r : reducedMst) {
+            Edge e = original.get(r);
+            if (e == null) throw new IllegalArgumentException("Not an edge of the reduced graph: " + r);
+            mst.add(e);
+        }
+        return mst;
+    }
+
+    public double forcedCost() { return forcedCost; }
+
+    public int originalVertex(int v) { return originalVertex[v]; }
+
+    public int selfLoopsRemoved() { return selfLoops; }
+
+    public int parallelEdgesRemoved() { return parallelEdges; }
+
+    public int leafVerticesRemoved() { return leafVertices; }
+}
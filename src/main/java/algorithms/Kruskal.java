@@ -3,6 +3,7 @@ package algorithms;
 import graph.Edge;
 import graph.Graph;
 import metrics.Metrics;
+import metrics.Metrics.Phase;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -10,31 +11,88 @@ import java.util.List;
 
 public class Kruskal {
 
-    private final List<Edge> mst = new ArrayList<>();
+    private final List<Edge> mst;
     private double totalCost = 0.0;
     private final Metrics metrics;
 
     public Kruskal(Graph G, Metrics metrics) {
+        this(G, metrics, new Workspace());
+    }
+
+    public Kruskal(Graph G, Metrics metrics, Workspace ws) {
         this.metrics = metrics;
-        run(G);
+        ws.begin(G.V(), G.E());
+        // the result owns its list, so it stays valid when the workspace is reused
+        this.mst = new ArrayList<>(Math.max(0, G.V() - 1));
+        run(G, ws);
     }
 
-    private void run(Graph G) {
-        Edge[] edges = G.edgesArray();
-        Arrays.sort(edges); // uses Edge.compareTo
-        UnionFind uf = new UnionFind(G.V(), metrics);
-        for (Edge e : edges) {
-            metrics.incrEdgesConsidered();
-            int v = e.either(), w = e.other(v);
-            if (uf.find(v) != uf.find(w)) {
-                uf.union(v, w);
-                mst.add(e);
-                totalCost += e.weight();
+    private void run(Graph G, Workspace ws) {
+        int E = G.E();
+        int[] order = ws.order;
+        double[] keys = ws.keys;
+        metrics.time(Phase.EDGE_SORT, () -> {
+            for (int i = 0; i < E; i++) {
+                order[i] = i;
+                keys[i] = G.edge(i).weight();
             }
-            if (mst.size() == G.V() - 1) break;
+            sort(keys, order, 0, E - 1);
+        });
+        metrics.time(Phase.UNION_FIND, () -> {
+            UnionFind uf = new UnionFind(G.V(), metrics, ws);
+            for (int k = 0; k < E; k++) {
+                Edge e = G.edge(order[k]);
+                metrics.incrEdgesConsidered();
+                int v = e.either(), w = e.other(v);
+                if (uf.find(v) != uf.find(w)) {
+                    uf.union(v, w);
+                    mst.add(e);
+                    totalCost += e.weight();
+                }
+                if (mst.size() == G.V() - 1) break;
+            }
+        });
+    }
+
+    // In-place quicksort of (weight, edge id) pairs. Ordering ties by id gives the same
+    // sequence as a stable sort of the edge list, without Arrays.sort's merge buffer.
+    static void sort(double[] keys, int[] ids, int lo, int hi) {
+        while (hi - lo > 16) {
+            int mid = (lo + hi) >>> 1;
+            if (less(keys, ids, mid, lo)) swap(keys, ids, mid, lo);
+            if (less(keys, ids, hi, lo)) swap(keys, ids, hi, lo);
+            if (less(keys, ids, hi, mid)) swap(keys, ids, hi, mid);
+            double pk = keys[mid];
+            int pi = ids[mid];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (compare(keys[i], ids[i], pk, pi) < 0) i++;
+                while (compare(keys[j], ids[j], pk, pi) > 0) j--;
+                if (i <= j) swap(keys, ids, i++, j--);
+            }
+            // recurse into the smaller half to bound stack depth
+            if (j - lo < hi - i) { sort(keys, ids, lo, j); lo = i; }
+            else { sort(keys, ids, i, hi); hi = j; }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            for (int j = i; j > lo && less(keys, ids, j, j - 1); j--) swap(keys, ids, j, j - 1);
         }
     }
 
+    private static boolean less(double[] keys, int[] ids, int a, int b) {
+        return compare(keys[a], ids[a], keys[b], ids[b]) < 0;
+    }
+
+    private static int compare(double ka, int ia, double kb, int ib) {
+        int c = Double.compare(ka, kb);
+        return c != 0 ? c : Integer.compare(ia, ib);
+    }
+
+    private static void swap(double[] keys, int[] ids, int a, int b) {
+        double k = keys[a]; keys[a] = keys[b]; keys[b] = k;
+        int t = ids[a]; ids[a] = ids[b]; ids[b] = t;
+    }
+
     public List<Edge> getMST() { return mst; }
 
     public double totalCost() { return totalCost; }
@@ -0,0 +1,166 @@
+package algorithms;
+
+import graph.Edge;
+import graph.Graph;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Checks a candidate spanning forest against the cycle property: it is minimum iff
+// no non-tree edge is lighter than the heaviest tree edge on the path between its
+// endpoints. Path maxima come from a Kruskal reconstruction tree (KRT) of the
+// candidate, where max(u..v) is the weight of LCA(u, v), answered offline with
+// Tarjan's LCA. Apart from sorting the V-1 tree edges, this is O(E α(V)).
+public class MSTVerifier {
+
+    public static class Result {
+        private final boolean valid;
+        private final Edge violation;
+        private final String reason;
+
+        private Result(boolean valid, Edge violation, String reason) {
+            this.valid = valid;
+            this.violation = violation;
+            this.reason = reason;
+        }
+
+        public boolean isValid() { return valid; }
+
+        public Edge violation() { return violation; }
+
+        public String reason() { return reason; }
+
+        @Override
+        public String toString() {
+            return valid ? "valid" : reason + ": " + violation;
+        }
+    }
+
+    private static final Result VALID = new Result(true, null, null);
+
+    public static Result verify(Graph G, List<Edge> tree) {
+        int V = G.V();
+        Map<Edge, Integer> treeIndex = new IdentityHashMap<>(tree.size() * 2);
+        for (int i = 0; i < tree.size(); i++) {
+            if (treeIndex.put(tree.get(i), i) != null)
+                return new Result(false, tree.get(i), "edge appears twice in the tree");
+        }
+
+        // KRT: leaves 0..V-1, internal node V+i created for the i-th lightest tree edge
+        int k = tree.size();
+        double[] keys = new double[k];
+        int[] order = new int[k];
+        for (int i = 0; i < k; i++) { keys[i] = tree.get(i).weight(); order[i] = i; }
+        Kruskal.sort(keys, order, 0, k - 1);
+        int nodes = V + k;
+        int[] left = new int[nodes], right = new int[nodes];
+        double[] weight = new double[nodes];
+        int[] up = new int[nodes];     // KRT parent, -1 at roots
+        int[] parent = new int[V], size = new int[V];
+        int[] top = new int[V];        // KRT node currently rooting each component
+        Arrays.fill(up, -1);
+        for (int i = 0; i < V; i++) { parent[i] = i; size[i] = 1; top[i] = i; }
+        for (int i = 0; i < k; i++) {
+            Edge e = tree.get(order[i]);
+            int v = e.either(), w = e.other(v);
+            int rv = find(parent, v), rw = find(parent, w);
+            if (rv == rw) return new Result(false, e, "tree contains a cycle");
+            int x = V + i;
+            left[x] = top[rv];
+            right[x] = top[rw];
+            up[left[x]] = x;
+            up[right[x]] = x;
+            weight[x] = keys[i];
+            if (size[rv] < size[rw]) { int t = rv; rv = rw; rw = t; }
+            parent[rw] = rv;
+            size[rv] += size[rw];
+            top[rv] = x;
+        }
+        int[] component = new int[V];
+        for (int i = 0; i < V; i++) component[i] = find(parent, i);
+
+        // Queries for non-tree edges, bucketed by endpoint (CSR layout)
+        int E = G.E();
+        boolean[] inTree = new boolean[tree.size()];
+        boolean[] skip = new boolean[E];   // tree edges and self-loops need no query
+        int[] qStart = new int[V + 1];
+        for (int id = 0; id < E; id++) {
+            Edge e = G.edge(id);
+            Integer t = treeIndex.get(e);
+            if (t != null) { inTree[t] = true; skip[id] = true; continue; }
+            int v = e.either(), w = e.other(v);
+            if (v == w) { skip[id] = true; continue; }
+            if (component[v] != component[w]) return new Result(false, e, "edge joins two components of the tree");
+            qStart[v + 1]++;
+            qStart[w + 1]++;
+        }
+        for (int i = 0; i < tree.size(); i++) {
+            if (!inTree[i]) return new Result(false, tree.get(i), "tree edge is not an edge of the graph");
+        }
+        for (int i = 0; i < V; i++) qStart[i + 1] += qStart[i];
+        int[] qEdge = new int[qStart[V]];
+        int[] qOther = new int[qStart[V]];
+        int[] fill = Arrays.copyOf(qStart, V);
+        for (int id = 0; id < E; id++) {
+            if (skip[id]) continue;
+            Edge e = G.edge(id);
+            int v = e.either(), w = e.other(v);
+            qEdge[fill[v]] = id;
+            qOther[fill[v]++] = w;
+            qEdge[fill[w]] = id;
+            qOther[fill[w]++] = v;
+        }
+
+        // Tarjan's offline LCA over each KRT root, with an explicit stack
+        double[] pathMax = new double[E];
+        int[] uf = new int[nodes], ancestor = new int[nodes], stack = new int[nodes];
+        boolean[] done = new boolean[nodes], expanded = new boolean[nodes];
+        for (int i = 0; i < nodes; i++) uf[i] = i;
+        for (int r = 0; r < V; r++) {
+            if (component[r] != r) continue;
+            int sp = 0;
+            stack[sp++] = top[r];
+            while (sp > 0) {
+                int x = stack[sp - 1];
+                if (x >= V && !expanded[x]) {
+                    expanded[x] = true;
+                    ancestor[x] = x;
+                    stack[sp++] = right[x];
+                    stack[sp++] = left[x];
+                    continue;
+                }
+                sp--;
+                if (x < V) {
+                    ancestor[x] = x;
+                    for (int q = qStart[x]; q < qStart[x + 1]; q++) {
+                        int y = qOther[q];
+                        if (done[y]) pathMax[qEdge[q]] = weight[ancestor[find(uf, y)]];
+                    }
+                }
+                done[x] = true;
+                int p = up[x];
+                if (p >= 0) {
+                    uf[find(uf, x)] = find(uf, p);
+                    ancestor[find(uf, p)] = p;
+                }
+            }
+        }
+
+        for (int id = 0; id < E; id++) {
+            if (skip[id]) continue;
+            Edge e = G.edge(id);
+            if (e.weight() < pathMax[id]) return new Result(false, e, "non-tree edge is lighter than the tree path it closes");
+        }
+        return VALID;
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+}
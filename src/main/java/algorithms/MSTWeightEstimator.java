@@ -0,0 +1,175 @@
+package algorithms;
+
+import graph.Edge;
+import graph.Graph;
+
+import java.util.Random;
+
+// Approximates the MST weight without computing the tree (Chazelle, Rubinfeld and
+// Trevisan). If c(t) is the number of components of the subgraph of edges with
+// weight <= t, then
+//     w(MST) = wmin * (n - c(inf)) + integral from wmin to wmax of (c(t) - c(inf)) dt.
+// The integral is a sum over weight levels (unit steps for integer weights when they
+// are not more numerous than (1 + eps) geometric steps, geometric steps otherwise), and each c(t) is estimated as
+// n * mean(1 / |component of u|) over sampled vertices u, with a bounded BFS that
+// gives up on components larger than 2 / eps (they contribute less than eps / 2 each).
+public class MSTWeightEstimator {
+
+    public static class Options {
+        // Samples grow as levels * log(levels) / eps^2 and levels as 1 / eps, so eps = 0.1
+        // keeps a default run on weights 1..100 near 19k samples, well inside the budget.
+        public double epsilon = 0.1;
+        public double confidence = 0.95;
+        public long timeBudgetMs = 1_000;
+        public long seed = 1;
+        // Weight range; when unset it is found by one scan over the edges, which
+        // is the only step that is linear in E.
+        public double minWeight = Double.NaN;
+        public double maxWeight = Double.NaN;
+        public boolean integerWeights = false;
+    }
+
+    public static class Estimate {
+        public final double value;
+        public final int samples;
+        public final int levels;
+        public final boolean budgetExceeded;
+
+        Estimate(double value, int samples, int levels, boolean budgetExceeded) {
+            this.value = value;
+            this.samples = samples;
+            this.levels = levels;
+            this.budgetExceeded = budgetExceeded;
+        }
+    }
+
+    public static Estimate estimate(Graph G, Options opt) {
+        int n = G.V();
+        if (n == 0 || G.E() == 0) return new Estimate(0.0, 0, 0, false);
+        long deadline = System.nanoTime() + opt.timeBudgetMs * 1_000_000L;
+
+        double wmin = opt.minWeight, wmax = opt.maxWeight;
+        boolean integral = opt.integerWeights;
+        if (Double.isNaN(wmin) || Double.isNaN(wmax)) {
+            wmin = Double.POSITIVE_INFINITY;
+            wmax = Double.NEGATIVE_INFINITY;
+            integral = true;
+            for (Edge e : G.edges()) {
+                wmin = Math.min(wmin, e.weight());
+                wmax = Math.max(wmax, e.weight());
+                if (e.weight() != Math.rint(e.weight())) integral = false;
+            }
+        }
+        double[] t = thresholds(wmin, wmax, integral, opt.epsilon);
+        int L = t.length - 1;   // levels t[0..L-1]; t[L] == wmax closes the last step
+
+        // The result sums L + 1 estimated counts, so, as in CRT, each one gets eps / (L + 1)
+        // of the error in variance terms: L + 1 times the single-mean Hoeffding sample
+        // count, with delta split between them by the union bound.
+        int cap = (int) Math.ceil(2 / opt.epsilon);
+        double delta = 1 - opt.confidence;
+        int counts = L + 1;
+        long wanted = (long) Math.ceil(counts * Math.log(2.0 * counts / delta) / (2 * opt.epsilon * opt.epsilon));
+        wanted = Math.min(wanted, Integer.MAX_VALUE);
+
+        Bfs bfs = new Bfs(cap);
+        Random rnd = new Random(opt.seed);
+        double[] sum = new double[L];
+        double sumInf = 0;
+        int samples = 0;
+        boolean exceeded = false;
+        while (samples < wanted) {
+            if (samples > 0 && System.nanoTime() > deadline) { exceeded = true; break; }
+            int u = rnd.nextInt(n);
+            // components only grow with t: once one is too big, all later ones are too
+            boolean small = true;
+            for (int k = 0; k < L && small; k++) {
+                int size = bfs.componentSize(G, u, t[k]);
+                if (size < 0) small = false;
+                else sum[k] += 1.0 / size;
+            }
+            int size = small ? bfs.componentSize(G, u, Double.POSITIVE_INFINITY) : -1;
+            if (size > 0) sumInf += 1.0 / size;
+            samples++;
+        }
+
+        double cInf = n * sumInf / samples;
+        double value = wmin * (n - cInf);
+        for (int k = 0; k < L; k++) {
+            double ck = n * sum[k] / samples;
+            value += (t[k + 1] - t[k]) * (ck - cInf);
+        }
+        return new Estimate(value, samples, L, exceeded);
+    }
+
+    private static double[] thresholds(double wmin, double wmax, boolean integral, double eps) {
+        if (wmax <= wmin) return new double[] {wmin};
+        // unit steps are exact for integer weights; use them unless geometric ones are fewer
+        long unit = (long) Math.ceil(wmax - wmin);
+        long geometric = wmin > 0 ? (long) Math.ceil(Math.log(wmax / wmin) / Math.log1p(eps)) : Long.MAX_VALUE;
+        int steps;
+        if (integral && unit <= geometric) steps = (int) unit;
+        else if (wmin > 0) steps = (int) geometric;
+        else steps = (int) Math.ceil(1 / eps);
+        double[] t = new double[steps + 1];
+        for (int k = 0; k < steps; k++) {
+            if (integral && unit <= geometric) t[k] = wmin + k;
+            else if (wmin > 0) t[k] = wmin * Math.pow(1 + eps, k);
+            else t[k] = wmin + (wmax - wmin) * k / steps;
+        }
+        t[steps] = wmax;
+        return t;
+    }
+
+    // BFS limited to cap vertices; the visited set is a small open-addressing table
+    // cleared by stamping, so a sample never touches O(V) memory.
+    private static class Bfs {
+        private final int cap;
+        private final int[] queue;
+        private final int[] keys;
+        private final int[] stamp;
+        private final int mask;
+        private final int shift;
+        private int epoch = 0;
+
+        Bfs(int cap) {
+            this.cap = cap;
+            queue = new int[cap];
+            int size = Integer.highestOneBit(cap * 4 - 1) << 1;
+            keys = new int[size];
+            stamp = new int[size];
+            mask = size - 1;
+            shift = 32 - Integer.numberOfTrailingZeros(size);
+        }
+
+        // Size of u's component among edges of weight <= limit, or -1 if it exceeds cap.
+        int componentSize(Graph G, int u, double limit) {
+            epoch++;
+            int head = 0, tail = 0;
+            add(u);
+            queue[tail++] = u;
+            while (head < tail) {
+                int v = queue[head++];
+                for (Edge e : G.adj(v)) {
+                    if (e.weight() > limit) continue;
+                    int w = e.other(v);
+                    if (!add(w)) continue;
+                    if (tail == cap) return -1;
+                    queue[tail++] = w;
+                }
+            }
+            return tail;
+        }
+
+        private boolean add(int v) {
+            int i = (v * 0x9E3779B9) >>> shift;
+            while (stamp[i] == epoch) {
+                if (keys[i] == v) return false;
+                i = (i + 1) & mask;
+            }
+            stamp[i] = epoch;
+            keys[i] = v;
+            return true;
+        }
+    }
+}
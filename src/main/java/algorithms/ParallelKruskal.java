@@ -0,0 +1,116 @@
+package algorithms;
+
+import graph.Edge;
+import graph.Graph;
+import metrics.Metrics;
+import metrics.Metrics.Phase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Kruskal on all cores, with exactly the sequential result. Weights are replaced by
+// their dense rank so that (rank << 32 | edge id) is one long whose order is Kruskal's
+// (weight, id) order, and those longs are sorted with Arrays.parallelSort. The sorted
+// edges are then taken in blocks: first every edge of a block is checked in parallel
+// against the union-find as it stood before the block (read-only, no path compression),
+// and edges whose endpoints are already joined are dropped, since unions only ever
+// add connections; then the survivors are committed sequentially in order, as in
+// Kruskal. Late in the run nearly every edge closes a cycle, and the parallel
+// check removes them.
+public class ParallelKruskal {
+    private static final int BLOCK = 1 << 14;
+    private static final int PARALLEL_THRESHOLD = 1 << 15;   // below this, filtering is not worth a fork
+
+    private final List<Edge> mst = new ArrayList<>();
+    private double totalCost = 0.0;
+    private int filtered = 0;
+    private final Metrics metrics;
+
+    public ParallelKruskal(Graph G, Metrics metrics) {
+        this.metrics = metrics;
+        long[] order = metrics.time(Phase.EDGE_SORT, () -> sortedEdges(G));
+        metrics.time(Phase.UNION_FIND, () -> run(G, order));
+    }
+
+    private static long[] sortedEdges(Graph G) {
+        int E = G.E();
+        double[] weights = new double[E];
+        IntStream.range(0, E).parallel().forEach(i -> weights[i] = G.edge(i).weight());
+        double[] distinct = weights.clone();
+        Arrays.parallelSort(distinct);
+        int d = 0;
+        for (int i = 0; i < E; i++) {
+            if (d == 0 || Double.compare(distinct[i], distinct[d - 1]) != 0) distinct[d++] = distinct[i];
+        }
+        int n = d;
+        long[] keys = new long[E];
+        IntStream.range(0, E).parallel().forEach(i ->
+                keys[i] = (long) Arrays.binarySearch(distinct, 0, n, weights[i]) << 32 | i);
+        Arrays.parallelSort(keys);
+        return keys;
+    }
+
+    private void run(Graph G, long[] order) {
+        int V = G.V(), E = order.length;
+        int[] parent = new int[V];
+        int[] rank = new int[V];
+        for (int v = 0; v < V; v++) parent[v] = v;
+        boolean parallel = E >= PARALLEL_THRESHOLD;
+        boolean[] cycle = new boolean[Math.min(BLOCK, E)];
+
+        for (int lo = 0; lo < E && mst.size() < V - 1; lo += BLOCK) {
+            int hi = Math.min(E, lo + BLOCK);
+            if (parallel) {
+                int base = lo;
+                IntStream.range(lo, hi).parallel().forEach(k -> {
+                    Edge e = G.edge((int) order[k]);
+                    int v = e.either();
+                    cycle[k - base] = root(parent, v) == root(parent, e.other(v));
+                });
+            }
+            for (int k = lo; k < hi; k++) {
+                metrics.incrEdgesConsidered();
+                if (parallel && cycle[k - lo]) {
+                    filtered++;
+                    continue;
+                }
+                Edge e = G.edge((int) order[k]);
+                int v = e.either();
+                metrics.incrUFFind();
+                metrics.incrUFFind();
+                int rv = find(parent, v), rw = find(parent, e.other(v));
+                if (rv == rw) continue;
+                metrics.incrUFUnion();
+                if (rank[rv] < rank[rw]) parent[rv] = rw;
+                else if (rank[rw] < rank[rv]) parent[rw] = rv;
+                else { parent[rw] = rv; rank[rv]++; }
+                mst.add(e);
+                totalCost += e.weight();
+                if (mst.size() == V - 1) break;
+            }
+        }
+    }
+
+    // read-only lookup used while other threads read the same arrays
+    private static int root(int[] parent, int x) {
+        while (parent[x] != x) x = parent[x];
+        return x;
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    public List<Edge> getMST() { return mst; }
+
+    public double totalCost() { return totalCost; }
+
+    // edges discarded by the parallel check without touching the union-find
+    public int filtered() { return filtered; }
+}
@@ -1,52 +1,217 @@
 package algorithms;
 
+import graph.CompressedGraph;
 import graph.Edge;
 import graph.Graph;
 import metrics.Metrics;
+import metrics.Metrics.Phase;
+import metrics.PhaseTimer;
 
 import java.util.*;
 
 public class Prim {
 
-    private final List<Edge> mst = new ArrayList<>();
+    private final List<Edge> mst;
     private double totalCost = 0.0;
     private final Metrics metrics;
+    private Edge[] batch = new Edge[16];
 
     public Prim(Graph G, Metrics metrics) {
+        this(G, metrics, new Workspace());
+    }
+
+    public Prim(Graph G, Metrics metrics, Workspace ws) {
         this.metrics = metrics;
-        run(G);
+        ws.begin(G.V(), G.E());
+        // the result owns its list, so it stays valid when the workspace is reused
+        this.mst = new ArrayList<>(Math.max(0, G.V() - 1));
+        try (PhaseTimer heap = metrics.time(Phase.HEAP_OPS)) {
+            run(G, ws, heap);
+        }
     }
 
-    private void run(Graph G) {
+    // HEAP_OPS covers the pushes and polls only: each visit scans the adjacency list
+    // into batch with the timer paused, and it runs again from pushing the batch until
+    // the next tree edge comes off the heap. That is two clock reads per tree edge,
+    // however many stale edges are polled in between.
+    private void run(Graph G, Workspace ws, PhaseTimer heap) {
         int V = G.V();
-        boolean[] marked = new boolean[V];
-        PriorityQueue<Edge> pq = new PriorityQueue<>(); // min by weight
+        int[] marked = ws.markStamp;   // marked[v] == epoch means v is in the tree
+        int epoch = ws.epoch();
+        PriorityQueue<Edge> pq = ws.pq; // min by weight
 
         for (int s = 0; s < V; s++) {
-            if (marked[s]) continue;
-            visit(G, s, marked, pq);
+            if (marked[s] == epoch) continue;
+            heap.pause();
+            int k = visit(G, s, marked, epoch, 0);
+            heap.resume();
+            push(pq, k);
             while (!pq.isEmpty()) {
                 Edge e = pq.poll();
                 metrics.incrPQOp();
                 int v = e.either(), w = e.other(v);
-                if (marked[v] && marked[w]) continue;
+                if (marked[v] == epoch && marked[w] == epoch) continue;
+                heap.pause();
                 mst.add(e);
                 totalCost += e.weight();
-                if (!marked[v]) visit(G, v, marked, pq);
-                if (!marked[w]) visit(G, w, marked, pq);
+                k = 0;
+                if (marked[v] != epoch) k = visit(G, v, marked, epoch, k);
+                if (marked[w] != epoch) k = visit(G, w, marked, epoch, k);
                 if (mst.size() == V - 1) return;
+                heap.resume();
+                push(pq, k);
             }
         }
     }
 
-    private void visit(Graph G, int v, boolean[] marked, PriorityQueue<Edge> pq) {
-        marked[v] = true;
-        for (Edge e : G.adj(v)) {
-            int w = e.other(v);
-            if (!marked[w]) {
-                pq.add(e);
-                metrics.incrEdgePushes();
+    // Eager Prim straight off the compressed adjacency: the heap is indexed by vertex,
+    // so it never holds more than V entries, and Edge objects exist only for tree edges.
+    public Prim(CompressedGraph G, Metrics metrics) {
+        this.metrics = metrics;
+        this.mst = new ArrayList<>();
+        try (PhaseTimer heap = metrics.time(Phase.HEAP_OPS)) {
+            run(G, heap);
+        }
+    }
+
+    // As above, the timer is paused from each poll until the scanned neighbours are
+    // applied to the heap: two clock reads per vertex.
+    private void run(CompressedGraph G, PhaseTimer heap) {
+        int V = G.V();
+        double[] dist = new double[V];
+        int[] from = new int[V];
+        boolean[] marked = new boolean[V];
+        IndexMinHeap pq = new IndexMinHeap(V, dist);
+        CompressedGraph.Cursor c = G.cursor();
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        // a vertex's improving neighbours, collected by the scan and applied to the heap after it
+        int[] near = new int[16];
+        double[] nearWeight = new double[16];
+
+        for (int s = 0; s < V; s++) {
+            if (marked[s]) continue;
+            dist[s] = 0.0;
+            from[s] = -1;
+            pq.push(s);
+            while (!pq.isEmpty()) {
+                int v = pq.poll();
+                heap.pause();
+                metrics.incrPQOp();
+                marked[v] = true;
+                if (from[v] >= 0) {
+                    mst.add(new Edge(from[v], v, dist[v]));
+                    totalCost += dist[v];
+                }
+                int k = 0;
+                c.reset(v);
+                while (c.next()) {
+                    int w = c.neighbor();
+                    if (marked[w] || c.weight() >= dist[w]) continue;
+                    if (k == near.length) {
+                        near = Arrays.copyOf(near, 2 * k);
+                        nearWeight = Arrays.copyOf(nearWeight, 2 * k);
+                    }
+                    near[k] = w;
+                    nearWeight[k++] = c.weight();
+                }
+                // keys change only here, each followed by its sift, so the heap stays ordered
+                heap.resume();
+                for (int i = 0; i < k; i++) {
+                    int w = near[i];
+                    if (nearWeight[i] >= dist[w]) continue;   // a parallel edge already did better
+                    dist[w] = nearWeight[i];
+                    from[w] = v;
+                    if (pq.contains(w)) pq.decrease(w);
+                    else pq.push(w);
+                    metrics.incrEdgePushes();
+                }
+            }
+        }
+    }
+
+    // Binary min-heap of vertices ordered by dist[], with positions for decrease-key.
+    private static final class IndexMinHeap {
+        private final int[] heap;
+        private final int[] pos;   // index in heap, or -1
+        private final double[] key;
+        private int size = 0;
+
+        IndexMinHeap(int n, double[] key) {
+            heap = new int[n];
+            pos = new int[n];
+            this.key = key;
+            Arrays.fill(pos, -1);
+        }
+
+        boolean isEmpty() { return size == 0; }
+
+        boolean contains(int v) { return pos[v] >= 0; }
+
+        void push(int v) {
+            heap[size] = v;
+            pos[v] = size;
+            up(size++);
+        }
+
+        void decrease(int v) { up(pos[v]); }
+
+        int poll() {
+            int top = heap[0];
+            pos[top] = -1;
+            if (--size > 0) {
+                heap[0] = heap[size];
+                pos[heap[0]] = 0;
+                down(0);
+            }
+            return top;
+        }
+
+        private void up(int i) {
+            int v = heap[i];
+            while (i > 0) {
+                int p = (i - 1) >>> 1;
+                if (key[heap[p]] <= key[v]) break;
+                heap[i] = heap[p];
+                pos[heap[i]] = i;
+                i = p;
             }
+            heap[i] = v;
+            pos[v] = i;
+        }
+
+        private void down(int i) {
+            int v = heap[i];
+            while (true) {
+                int c = 2 * i + 1;
+                if (c >= size) break;
+                if (c + 1 < size && key[heap[c + 1]] < key[heap[c]]) c++;
+                if (key[v] <= key[heap[c]]) break;
+                heap[i] = heap[c];
+                pos[heap[i]] = i;
+                i = c;
+            }
+            heap[i] = v;
+            pos[v] = i;
+        }
+    }
+
+    // Marks v and appends its edges to unmarked vertices to batch from index k on;
+    // returns the new batch length.
+    private int visit(Graph G, int v, int[] marked, int epoch, int k) {
+        marked[v] = epoch;
+        for (Edge e : G.adj(v)) {
+            if (marked[e.other(v)] == epoch) continue;
+            if (k == batch.length) batch = Arrays.copyOf(batch, 2 * k);
+            batch[k++] = e;
+        }
+        return k;
+    }
+
+    private void push(PriorityQueue<Edge> pq, int k) {
+        for (int i = 0; i < k; i++) {
+            pq.add(batch[i]);
+            batch[i] = null;
+            metrics.incrEdgePushes();
         }
     }
 
@@ -0,0 +1,141 @@
+package algorithms;
+
+import graph.Edge;
+import graph.Graph;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// For every edge of a minimum spanning forest, the cheapest non-tree edge that
+// reconnects the two sides if it fails. Non-tree edges are taken in weight order and
+// each claims the still-unclaimed tree edges on its tree path; a union-find over the
+// tree skips claimed edges, so the whole pass is O(E log E) for the sort plus
+// O(E α(V)). Afterwards a failure query is a lookup.
+public class ReplacementEdges {
+    private final List<Edge> tree;
+    private final Map<Edge, Integer> treeIndex;
+    private final Edge[] replacement;
+    private final double totalCost;
+
+    public ReplacementEdges(Graph G, List<Edge> tree) {
+        int V = G.V();
+        int k = tree.size();
+        this.tree = tree;
+        treeIndex = new IdentityHashMap<>(k * 2);
+        replacement = new Edge[k];
+        double cost = 0;
+        for (int i = 0; i < k; i++) {
+            treeIndex.put(tree.get(i), i);
+            cost += tree.get(i).weight();
+        }
+        totalCost = cost;
+
+        // tree adjacency in CSR form
+        int[] start = new int[V + 1];
+        for (Edge e : tree) {
+            int v = e.either();
+            start[v + 1]++;
+            start[e.other(v) + 1]++;
+        }
+        for (int i = 0; i < V; i++) start[i + 1] += start[i];
+        int[] adjEdge = new int[2 * k];
+        int[] fill = new int[V];
+        for (int i = 0; i < k; i++) {
+            int v = tree.get(i).either(), w = tree.get(i).other(v);
+            adjEdge[start[v] + fill[v]++] = i;
+            adjEdge[start[w] + fill[w]++] = i;
+        }
+
+        // root every component; parentEdge[v] is the tree edge from v to its parent
+        int[] parent = new int[V], parentEdge = new int[V], depth = new int[V], root = new int[V];
+        int[] queue = new int[V];
+        boolean[] seen = new boolean[V];
+        for (int r = 0; r < V; r++) {
+            if (seen[r]) continue;
+            int head = 0, tail = 0;
+            queue[tail++] = r;
+            seen[r] = true;
+            parent[r] = r;
+            parentEdge[r] = -1;
+            while (head < tail) {
+                int v = queue[head++];
+                root[v] = r;
+                for (int j = start[v]; j < start[v + 1]; j++) {
+                    int id = adjEdge[j];
+                    int w = tree.get(id).other(v);
+                    if (seen[w]) continue;
+                    seen[w] = true;
+                    parent[w] = v;
+                    parentEdge[w] = id;
+                    depth[w] = depth[v] + 1;
+                    queue[tail++] = w;
+                }
+            }
+        }
+
+        // non-tree edges by (weight, id)
+        int E = G.E();
+        int m = 0;
+        int[] ids = new int[E];
+        double[] keys = new double[E];
+        for (int id = 0; id < E; id++) {
+            Edge e = G.edge(id);
+            int v = e.either();
+            if (v == e.other(v) || treeIndex.containsKey(e)) continue;
+            ids[m] = id;
+            keys[m++] = e.weight();
+        }
+        Kruskal.sort(keys, ids, 0, m - 1);
+
+        // jump[v] == v while v's parent edge is unclaimed; claimed vertices point upwards
+        int[] jump = new int[V];
+        for (int v = 0; v < V; v++) jump[v] = v;
+        int unclaimed = k;
+        for (int i = 0; i < m && unclaimed > 0; i++) {
+            Edge e = G.edge(ids[i]);
+            int a = e.either(), b = e.other(a);
+            if (root[a] != root[b]) continue;
+            a = find(jump, a);
+            b = find(jump, b);
+            while (a != b) {
+                if (depth[a] < depth[b]) { int t = a; a = b; b = t; }
+                replacement[parentEdge[a]] = e;
+                unclaimed--;
+                jump[a] = parent[a];
+                a = find(jump, a);
+            }
+        }
+    }
+
+    private static int find(int[] jump, int x) {
+        while (jump[x] != x) {
+            jump[x] = jump[jump[x]];
+            x = jump[x];
+        }
+        return x;
+    }
+
+    public List<Edge> tree() { return tree; }
+
+    public double totalCost() { return totalCost; }
+
+    // Cheapest edge that reconnects the forest when treeEdge fails, or null for a bridge.
+    public Edge replacement(Edge treeEdge) {
+        return replacement[indexOf(treeEdge)];
+    }
+
+    // Cost of the minimum spanning forest once treeEdge fails; +Infinity when the
+    // failure disconnects its component.
+    public double costWithout(Edge treeEdge) {
+        int i = indexOf(treeEdge);
+        if (replacement[i] == null) return Double.POSITIVE_INFINITY;
+        return totalCost - treeEdge.weight() + replacement[i].weight();
+    }
+
+    private int indexOf(Edge treeEdge) {
+        Integer i = treeIndex.get(treeEdge);
+        if (i == null) throw new IllegalArgumentException("Not a tree edge: " + treeEdge);
+        return i;
+    }
+}
@@ -6,6 +6,8 @@ public class UnionFind {
     private int[] parent;
     private int[] rank;
     private Metrics metrics;
+    private int[] stamp;
+    private int epoch;
 
     public UnionFind(int n, Metrics metrics) {
         parent = new int[n];
@@ -14,8 +16,26 @@ public class UnionFind {
         for (int i = 0; i < n; i++) parent[i] = i;
     }
 
+    // Borrows the workspace buffers; an element is initialised the first time it is touched.
+    public UnionFind(int n, Metrics metrics, Workspace ws) {
+        parent = ws.parent;
+        rank = ws.rank;
+        stamp = ws.ufStamp;
+        epoch = ws.epoch();
+        this.metrics = metrics;
+    }
+
+    private void touch(int x) {
+        if (stamp != null && stamp[x] != epoch) {
+            stamp[x] = epoch;
+            parent[x] = x;
+            rank[x] = 0;
+        }
+    }
+
     public int find(int x) {
         metrics.incrUFFind();
+        touch(x);
         if (parent[x] != x) parent[x] = find(parent[x]);
         return parent[x];
     }
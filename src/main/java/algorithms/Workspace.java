@@ -0,0 +1,46 @@
+package algorithms;
+
+import graph.Edge;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+// Scratch state shared by Prim, Kruskal and UnionFind across many graphs.
+// Buffers only ever grow, and per-vertex state is invalidated by bumping an epoch
+// instead of clearing, so starting the next graph costs O(touched) rather than O(V).
+// Results are not kept here: each MST owns its edge list and outlives later runs.
+// Not thread-safe; keep one per thread.
+public class Workspace {
+    private int epoch = 0;
+
+    int[] markStamp = new int[0];   // Prim: v is marked iff markStamp[v] == epoch
+    int[] ufStamp = new int[0];     // UnionFind: parent/rank of v are live iff ufStamp[v] == epoch
+    int[] parent = new int[0];
+    int[] rank = new int[0];
+    int[] order = new int[0];       // Kruskal: edge ids in sorted order
+    double[] keys = new double[0];  // Kruskal: weight of order[k]
+    final PriorityQueue<Edge> pq = new PriorityQueue<>();
+
+    void begin(int V, int E) {
+        if (markStamp.length < V) {
+            int n = Math.max(V, markStamp.length * 2);
+            markStamp = new int[n];
+            ufStamp = new int[n];
+            parent = new int[n];
+            rank = new int[n];
+        }
+        if (order.length < E) {
+            int n = Math.max(E, order.length * 2);
+            order = new int[n];
+            keys = new double[n];
+        }
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(markStamp, 0);
+            Arrays.fill(ufStamp, 0);
+            epoch = 1;
+        }
+        pq.clear();
+    }
+
+    int epoch() { return epoch; }
+}
@@ -1,89 +1,408 @@
 package cli;
 
+import algorithms.EuclideanMST;
+import algorithms.GraphReducer;
 import algorithms.Kruskal;
+import algorithms.MSTVerifier;
+import algorithms.MSTWeightEstimator;
+import algorithms.ParallelKruskal;
 import algorithms.Prim;
+import algorithms.ReplacementEdges;
+import algorithms.Workspace;
+import io.BinaryResultWriter;
 import io.JSONReader;
 import io.JSONWriter;
 import metrics.Metrics;
+import metrics.Metrics.Phase;
+import graph.CompressedGraph;
+import graph.Edge;
 import graph.Graph;
 import io.JSONReader.GraphWithId;
 import io.JSONReader.EdgeTriple;
 
+import java.io.File;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 public class BenchmarkRunner {
     private static final String DEFAULT_OUTPUT = "output.json";
 
+    enum Format { JSON, COMPACT, BINARY }
+
+    static class Options {
+        boolean verify = false;
+        boolean exact = true;
+        boolean failures = false;
+        boolean compressed = false;
+        boolean reduce = false;
+        boolean parallel = false;
+        // COMPACT and BINARY list each MST by position in the input's "edges" array:
+        // COMPACT as parallel id/from/to/weight arrays, BINARY as a varint id list
+        Format format = Format.JSON;
+        MSTWeightEstimator.Options estimate = null;  // null: no estimate
+    }
+
     public static void run(String inputJson, String outputJson) {
+        run(inputJson, outputJson, new Options());
+    }
+
+    public static void run(String inputJson, String outputJson, Options opt) {
         List<GraphWithId> graphList = JSONReader.readGraphs(inputJson);
         List<Map<String,Object>> results = new ArrayList<>();
+        // one graph and one workspace for the whole batch: their buffers reach a steady
+        // size after the largest input instead of being reallocated for every graph
+        Workspace ws = new Workspace();
+        Graph G = null;
 
         for (GraphWithId gw : graphList) {
+            Metrics build = new Metrics();
+            G = load(gw, G, build);
+            results.add(report(gw, G, build, ws, opt));
+        }
 
-            Graph G = new Graph(gw.nodes);
-            for (EdgeTriple et : gw.edges) {
-                G.addEdge(et.from, et.to, et.weight);
-            }
+        long t0 = System.nanoTime();
+        if (opt.format == Format.BINARY) BinaryResultWriter.writeResults(outputJson, results);
+        else if (opt.format == Format.COMPACT) JSONWriter.writeCompactResults(outputJson, results);
+        else JSONWriter.writeResults(outputJson, results);
+        long t1 = System.nanoTime();
+        System.out.printf("Benchmark completed. Output written to %s (%s, %d bytes, serialised in %d ms)%n",
+                outputJson, opt.format.name().toLowerCase(), new File(outputJson).length(), (t1 - t0) / 1_000_000);
+    }
 
-            Map<String,Object> report = new LinkedHashMap<>();
-            report.put("graph_id", gw.id);
-            Map<String,Object> inputStats = new LinkedHashMap<>();
-            inputStats.put("vertices", G.V());
-            inputStats.put("edges", G.E());
-            report.put("input_stats", inputStats);
+    // Builds gw into G, reusing G's buffers when it is not null. A point set becomes its
+    // vertices only (labelled by index when it has no nodes); its edges are derived later.
+    static Graph load(GraphWithId gw, Graph G, Metrics m) {
+        return m.time(Phase.GRAPH_BUILD, () -> build(gw, G));
+    }
 
+    private static Graph build(GraphWithId gw, Graph G) {
+        if (gw.x != null && gw.nodes.isEmpty()) {
+            if (G == null) G = new Graph(gw.x.length);
+            else G.reset(gw.x.length);
+            return G;
+        }
+        if (G == null) G = new Graph(gw.nodes);
+        else G.reset(gw.nodes);
+        if (gw.x != null) return G;
+        for (EdgeTriple et : gw.edges) {
+            G.addEdge(et.from, et.to, et.weight);
+        }
+        return G;
+    }
+
+    static Map<String,Object> report(GraphWithId gw, Graph G, Metrics build, Workspace ws, Options opt) {
+        Map<String,Object> report = new LinkedHashMap<>();
+        report.put("graph_id", gw.id);
+        Map<String,Object> inputStats = new LinkedHashMap<>();
+        inputStats.put("vertices", G.V());
+        inputStats.put("edges", G.E());
+        inputStats.put("phase_time_ns", build.phasesToMap());
+        report.put("input_stats", inputStats);
+
+        // point sets have no edge list to compare algorithms on
+        if (gw.x != null) {
+            report.put("euclidean", euclideanReport(G, gw, opt.verify));
+            return report;
+        }
+
+        // G's edge i is the input's edge position[i]: they differ once a malformed edge is dropped
+        int[] position = opt.format == Format.JSON ? null : inputPositions(gw);
+        Double exactCost = null;
+        if (opt.exact) {
             Metrics mPrim = new Metrics();
             long t0 = System.nanoTime();
-            Prim prim = new Prim(G, mPrim);
+            Prim prim = new Prim(G, mPrim, ws);
             long t1 = System.nanoTime();
             mPrim.setTimeMs((t1 - t0) / 1_000_000);
-            Map<String,Object> primMap = new LinkedHashMap<>();
-            List<Map<String,Object>> primEdges = new ArrayList<>();
-            for (var e : prim.getMST()) {
-                Map<String,Object> edgeObj = new LinkedHashMap<>();
-                edgeObj.put("from", G.labelOf(e.either()));
-                edgeObj.put("to", G.labelOf(e.other(e.either())));
-                edgeObj.put("weight", e.weight());
-                primEdges.add(edgeObj);
-            }
-            primMap.put("mst_edges", primEdges);
-            primMap.put("total_cost", prim.totalCost());
-            primMap.put("operations_count", mPrim.toMap());
-            primMap.put("execution_time_ms", mPrim.getTimeMs());
-            report.put("prim", primMap);
+            report.put("prim", mstReport(G, prim.getMST(), prim.totalCost(), mPrim, opt.verify, opt.format, position));
+            if (opt.compressed) report.put("prim_compressed", compressedReport(G, opt, position));
 
             Metrics mK = new Metrics();
             t0 = System.nanoTime();
-            Kruskal kr = new Kruskal(G, mK);
+            Kruskal kr = new Kruskal(G, mK, ws);
             t1 = System.nanoTime();
             mK.setTimeMs((t1 - t0)/1_000_000);
-            Map<String,Object> krMap = new LinkedHashMap<>();
-            List<Map<String,Object>> krEdges = new ArrayList<>();
-            for (var e : kr.getMST()) {
-                Map<String,Object> edgeObj = new LinkedHashMap<>();
-                edgeObj.put("from", G.labelOf(e.either()));
-                edgeObj.put("to", G.labelOf(e.other(e.either())));
-                edgeObj.put("weight", e.weight());
-                krEdges.add(edgeObj);
-            }
-            krMap.put("mst_edges", krEdges);
-            krMap.put("total_cost", kr.totalCost());
-            krMap.put("operations_count", mK.toMap());
-            krMap.put("execution_time_ms", mK.getTimeMs());
+            Map<String,Object> krMap = mstReport(G, kr.getMST(), kr.totalCost(), mK, opt.verify, opt.format, position);
+            if (opt.failures) krMap.put("link_failures", failuresReport(G, kr.getMST()));
             report.put("kruskal", krMap);
+            exactCost = kr.totalCost();
+            if (opt.reduce) report.put("kruskal_reduced", reducedReport(G, ws, opt, position));
+            if (opt.parallel) report.put("kruskal_parallel", parallelReport(G, opt, position));
+        }
+
+        if (opt.estimate != null) report.put("estimate", estimateReport(G, opt.estimate, exactCost));
+
+        return report;
+    }
+
+    private static int[] inputPositions(GraphWithId gw) {
+        int[] position = new int[gw.edges.size()];
+        for (int i = 0; i < position.length; i++) position[i] = gw.edges.get(i).index;
+        return position;
+    }
+
+    private static Map<String,Object> mstReport(Graph G, List<Edge> mst, double totalCost, Metrics m,
+                                                boolean verify, Format format, int[] position) {
+        Map<String,Object> map = new LinkedHashMap<>();
+        m.time(Phase.OUTPUT_FORMAT, () -> {
+            if (format == Format.JSON) {
+                List<Map<String,Object>> edges = new ArrayList<>();
+                for (var e : mst) {
+                    Map<String,Object> edgeObj = new LinkedHashMap<>();
+                    edgeObj.put("from", G.labelOf(e.either()));
+                    edgeObj.put("to", G.labelOf(e.other(e.either())));
+                    edgeObj.put("weight", e.weight());
+                    edges.add(edgeObj);
+                }
+                map.put("mst_edges", edges);
+            } else {
+                // (input position, edge id) pairs, so the arrays come out in input order
+                long[] order = new long[mst.size()];
+                for (int i = 0; i < order.length; i++) {
+                    int id = mst.get(i).id();
+                    order[i] = (long) position[id] << 32 | id;
+                }
+                Arrays.sort(order);
+                int[] ids = new int[order.length];
+                for (int i = 0; i < ids.length; i++) ids[i] = (int) (order[i] >>> 32);
+                map.put("mst_edge_ids", ids);
+                if (format == Format.COMPACT) {
+                    int[] from = new int[order.length], to = new int[order.length];
+                    double[] weight = new double[order.length];
+                    for (int i = 0; i < order.length; i++) {
+                        Edge e = G.edge((int) order[i]);
+                        from[i] = e.either();
+                        to[i] = e.other(from[i]);
+                        weight[i] = e.weight();
+                    }
+                    map.put("mst_from", from);
+                    map.put("mst_to", to);
+                    map.put("mst_weight", weight);
+                }
+            }
+        });
+        map.put("total_cost", totalCost);
+        map.put("operations_count", m.toMap());
+        map.put("execution_time_ms", m.getTimeMs());
+        map.put("phase_time_ns", m.phasesToMap());
+        if (verify) map.put("verification", verification(G, mst));
+        return map;
+    }
+
+    private static Map<String,Object> euclideanReport(Graph G, GraphWithId gw, boolean verify) {
+        Metrics m = new Metrics();
+        long t0 = System.nanoTime();
+        EuclideanMST emst = new EuclideanMST(G, gw.x, gw.y, m);
+        long t1 = System.nanoTime();
+        m.setTimeMs((t1 - t0) / 1_000_000);
+        // a point set has no input edges to refer to, so its tree is always spelt out
+        Map<String,Object> map = mstReport(G, emst.getMST(), emst.totalCost(), m, false, Format.JSON, null);
+        map.put("boruvka_rounds", emst.rounds());
+        // G holds only the tree's own edges, so the verifier could never find a lighter
+        // edge; checking the tree would need the complete graph or a Delaunay superset
+        if (verify) map.put("verification", Map.of("skipped", "no candidate graph beyond the tree for point sets"));
+        return map;
+    }
 
-            results.add(report);
+    // Kruskal on the graph left after GraphReducer, mapped back to G's edges.
+    private static Map<String,Object> reducedReport(Graph G, Workspace ws, Options opt, int[] position) {
+        Metrics m = new Metrics();
+        long t0 = System.nanoTime();
+        GraphReducer reducer = new GraphReducer(G);
+        long t1 = System.nanoTime();
+        Kruskal kr = new Kruskal(reducer.reduced(), m, ws);
+        List<Edge> mst = reducer.expand(kr.getMST());
+        long t2 = System.nanoTime();
+        m.setTimeMs((t2 - t0) / 1_000_000);
+        Map<String,Object> map = mstReport(G, mst, reducer.forcedCost() + kr.totalCost(), m, opt.verify, opt.format, position);
+        Map<String,Object> reduction = new LinkedHashMap<>();
+        reduction.put("self_loops_removed", reducer.selfLoopsRemoved());
+        reduction.put("parallel_edges_removed", reducer.parallelEdgesRemoved());
+        // each leaf takes exactly its one edge into the tree, so this also counts forced edges
+        reduction.put("leaf_vertices_removed", reducer.leafVerticesRemoved());
+        reduction.put("vertices_after", reducer.reduced().V());
+        reduction.put("edges_after", reducer.reduced().E());
+        reduction.put("time_ms", (t1 - t0) / 1_000_000);
+        map.put("reduction", reduction);
+        return map;
+    }
+
+    private static Map<String,Object> parallelReport(Graph G, Options opt, int[] position) {
+        Metrics m = new Metrics();
+        long t0 = System.nanoTime();
+        ParallelKruskal pk = new ParallelKruskal(G, m);
+        long t1 = System.nanoTime();
+        m.setTimeMs((t1 - t0) / 1_000_000);
+        Map<String,Object> map = mstReport(G, pk.getMST(), pk.totalCost(), m, opt.verify, opt.format, position);
+        map.put("filtered_edges", pk.filtered());
+        map.put("threads", ForkJoinPool.getCommonPoolParallelism());
+        return map;
+    }
+
+    // Prim over the varint-compressed adjacency. Its tree edges are rebuilt from the
+    // encoding and matched back to G's edges, so they have ids and can be verified.
+    private static Map<String,Object> compressedReport(Graph G, Options opt, int[] position) {
+        Metrics m = new Metrics();
+        long t0 = System.nanoTime();
+        CompressedGraph cg = m.time(Phase.GRAPH_BUILD, () -> CompressedGraph.from(G));
+        long t1 = System.nanoTime();
+        Prim prim = new Prim(cg, m);
+        long t2 = System.nanoTime();
+        m.setTimeMs((t2 - t1) / 1_000_000);
+        Map<String,Object> map = mstReport(G, inputEdges(G, prim.getMST()), prim.totalCost(), m, opt.verify, opt.format, position);
+        map.put("bytes_per_edge", cg.bytesPerEdge());
+        map.put("build_time_ms", (t1 - t0) / 1_000_000);
+        return map;
+    }
+
+    // G's edge for each rebuilt tree edge. Prim only takes the lightest edge between two
+    // vertices, so one pass keeps the lightest (then lowest-id) edge per unordered pair,
+    // in an open-addressing table on (min << 32 | max) as GraphReducer does.
+    private static List<Edge> inputEdges(Graph G, List<Edge> edges) {
+        int E = G.E();
+        int size = Integer.highestOneBit(Math.max(4, E * 2 - 1)) << 1;
+        long[] keys = new long[size];
+        int[] slot = new int[size];
+        Arrays.fill(slot, -1);
+        int shift = 64 - Integer.numberOfTrailingZeros(size);
+        for (int id = 0; id < E; id++) {
+            Edge e = G.edge(id);
+            int i = pairSlot(keys, slot, shift, e);
+            if (slot[i] < 0) keys[i] = pairKey(e);
+            if (slot[i] < 0 || e.weight() < G.edge(slot[i]).weight()) slot[i] = id;
+        }
+        List<Edge> result = new ArrayList<>(edges.size());
+        for (Edge e : edges) {
+            int i = pairSlot(keys, slot, shift, e);
+            Edge match = slot[i] < 0 ? null : G.edge(slot[i]);
+            if (match == null || match.weight() != e.weight()) throw new IllegalStateException("No input edge for " + e);
+            result.add(match);
+        }
+        return result;
+    }
+
+    private static long pairKey(Edge e) {
+        int v = e.either(), w = e.other(v);
+        return (long) Math.min(v, w) << 32 | Math.max(v, w);
+    }
+
+    private static int pairSlot(long[] keys, int[] slot, int shift, Edge e) {
+        long key = pairKey(e);
+        int i = (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+        while (slot[i] >= 0 && keys[i] != key) i = (i + 1) & (slot.length - 1);
+        return i;
+    }
+
+    private static Map<String,Object> estimateReport(Graph G, MSTWeightEstimator.Options eo, Double exactCost) {
+        long t0 = System.nanoTime();
+        MSTWeightEstimator.Estimate est = MSTWeightEstimator.estimate(G, eo);
+        long t1 = System.nanoTime();
+        Map<String,Object> m = new LinkedHashMap<>();
+        m.put("estimated_total_cost", est.value);
+        if (exactCost != null) {
+            m.put("exact_total_cost", exactCost);
+            m.put("relative_error", exactCost == 0 ? 0.0 : (est.value - exactCost) / exactCost);
         }
+        m.put("samples", est.samples);
+        m.put("levels", est.levels);
+        m.put("budget_exceeded", est.budgetExceeded);
+        m.put("execution_time_ms", (t1 - t0) / 1_000_000);
+        return m;
+    }
+
+    // One entry per tree edge: its cheapest replacement and the tree cost without it.
+    private static Map<String,Object> failuresReport(Graph G, List<Edge> mst) {
+        long t0 = System.nanoTime();
+        ReplacementEdges rep = new ReplacementEdges(G, mst);
+        List<Map<String,Object>> failures = new ArrayList<>();
+        for (Edge e : mst) {
+            Map<String,Object> f = new LinkedHashMap<>();
+            f.put("from", G.labelOf(e.either()));
+            f.put("to", G.labelOf(e.other(e.either())));
+            f.put("weight", e.weight());
+            Edge r = rep.replacement(e);
+            if (r == null) {
+                f.put("replacement", null);
+                f.put("new_total_cost", null);
+            } else {
+                Map<String,Object> rObj = new LinkedHashMap<>();
+                rObj.put("from", G.labelOf(r.either()));
+                rObj.put("to", G.labelOf(r.other(r.either())));
+                rObj.put("weight", r.weight());
+                f.put("replacement", rObj);
+                f.put("new_total_cost", rep.costWithout(e));
+            }
+            failures.add(f);
+        }
+        long t1 = System.nanoTime();
+        Map<String,Object> m = new LinkedHashMap<>();
+        m.put("failures", failures);
+        m.put("execution_time_ms", (t1 - t0) / 1_000_000);
+        return m;
+    }
+
+    private static Map<String,Object> verification(Graph G, List<Edge> mst) {
+        long t0 = System.nanoTime();
+        MSTVerifier.Result r = MSTVerifier.verify(G, mst);
+        long t1 = System.nanoTime();
+        Map<String,Object> m = new LinkedHashMap<>();
+        m.put("valid", r.isValid());
+        if (!r.isValid()) {
+            Edge e = r.violation();
+            m.put("reason", r.reason());
+            m.put("violating_edge", G.labelOf(e.either()) + "-" + G.labelOf(e.other(e.either())) + " " + e.weight());
+        }
+        m.put("time_ms", (t1 - t0) / 1_000_000);
+        return m;
+    }
 
-        JSONWriter.writeResults(outputJson, results);
-        System.out.println("Benchmark completed. Output written to " + outputJson);
+    private static MSTWeightEstimator.Options estimateOptions(Options opt) {
+        if (opt.estimate == null) opt.estimate = new MSTWeightEstimator.Options();
+        return opt.estimate;
+    }
+
+    static final String OPTIONS_USAGE = "[--verify] [--failures] [--compressed] [--reduce] [--parallel] [--format json|compact|binary]"
+            + " [--estimate | --estimate-only] [--epsilon 0.1] [--confidence 0.95] [--budget-ms 1000]"
+            + " [--min-weight w --max-weight w [--integer-weights]]";
+
+    // Applies the report option at args[i] and returns the index of its last argument,
+    // or -1 when args[i] is not a report option.
+    static int parseOption(String[] args, int i, Options opt) {
+        switch (args[i]) {
+            case "--verify": opt.verify = true; break;
+            case "--failures": opt.failures = true; break;
+            case "--compressed": opt.compressed = true; break;
+            case "--reduce": opt.reduce = true; break;
+            case "--parallel": opt.parallel = true; break;
+            case "--format": opt.format = Format.valueOf(args[++i].toUpperCase()); break;
+            case "--estimate": opt.estimate = estimateOptions(opt); break;
+            case "--estimate-only": opt.estimate = estimateOptions(opt); opt.exact = false; break;
+            case "--epsilon": estimateOptions(opt).epsilon = Double.parseDouble(args[++i]); break;
+            case "--confidence": estimateOptions(opt).confidence = Double.parseDouble(args[++i]); break;
+            case "--budget-ms": estimateOptions(opt).timeBudgetMs = Long.parseLong(args[++i]); break;
+            // a known weight range saves the estimator its one scan over all edges
+            case "--min-weight": estimateOptions(opt).minWeight = Double.parseDouble(args[++i]); break;
+            case "--max-weight": estimateOptions(opt).maxWeight = Double.parseDouble(args[++i]); break;
+            case "--integer-weights": estimateOptions(opt).integerWeights = true; break;
+            default: return -1;
+        }
+        return i;
     }
 
     public static void main(String[] args) {
         if (args.length < 2) {
-            System.out.println("Usage: java cli.BenchmarkRunner input.json output.json");
+            System.out.println("Usage: java cli.BenchmarkRunner input.json output.json " + OPTIONS_USAGE);
             return;
         }
-        run(args[0], args[1]);
+        Options opt = new Options();
+        for (int i = 2; i < args.length; i++) {
+            int last = parseOption(args, i, opt);
+            if (last < 0) {
+                System.out.println("Unknown option: " + args[i]);
+                return;
+            }
+            i = last;
+        }
+        run(args[0], args[1], opt);
     }
 }
@@ -1,5 +1,7 @@
 package cli;
 
+import graph.Graph;
+
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
@@ -8,6 +10,7 @@ import java.util.*;
 public class GraphGenerator {
 
     private static final Random rnd = new Random(42); // фиксируем seed для воспроизводимости
+    private static final double POINT_SIDE = 10_000.0;
 
     private static class Category {
         final String name;
@@ -28,6 +31,12 @@ public class GraphGenerator {
     public static void main(String[] args) {
         String outFile = "input.json";
         if (args.length >= 1 && args[0] != null && !args[0].isBlank()) outFile = args[0];
+        if (args.length >= 3 && args[1].equals("--points")) {
+            int n = Integer.parseInt(args[2]);
+            int count = args.length >= 5 && args[3].equals("--count") ? Integer.parseInt(args[4]) : 1;
+            writePointSets(outFile, n, count);
+            return;
+        }
 
         List<Category> cats = List.of(
                 new Category("Small", 5, 10, 30, 2.0),    // edges ~ 2 * V
@@ -111,6 +120,67 @@ public class GraphGenerator {
         return g;
     }
 
+    // Builds the same kind of connected graph directly in memory, for benchmarks that
+    // are too large to round-trip through input.json. Duplicate pairs are not filtered:
+    // a HashSet<Long> of every pair would dwarf the graph itself, and a parallel edge
+    // is harmless for an MST.
+    public static Graph generateGraph(int V, int targetEdges, long seed) {
+        Random r = new Random(seed);
+        Graph G = new Graph(V);
+        for (int i = 1; i < V; i++) {
+            G.addEdge(i - 1, i, 1 + r.nextInt(100));
+        }
+        long maxPossible = (long) V * (V - 1) / 2;
+        long desired = Math.min(targetEdges, maxPossible);
+        while (G.E() < desired) {
+            int u = r.nextInt(V);
+            int v = r.nextInt(V);
+            if (u == v) continue;
+            G.addEdge(Math.min(u, v), Math.max(u, v), 1 + r.nextInt(100));
+        }
+        return G;
+    }
+
+    // n points uniform in a SIDE x SIDE square, as {x, y}.
+    public static double[][] generatePoints(int n, long seed) {
+        Random r = new Random(seed);
+        double[] x = new double[n], y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = r.nextDouble() * POINT_SIDE;
+            y[i] = r.nextDouble() * POINT_SIDE;
+        }
+        return new double[][] {x, y};
+    }
+
+    // Point-set inputs carry coordinates instead of an edge list, so a million points
+    // take tens of megabytes rather than a complete graph. Nodes are left out and
+    // labelled by index when read.
+    private static void writePointSets(String outFile, int n, int count) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n  \"graphs\": [\n");
+        for (int g = 0; g < count; g++) {
+            double[][] p = generatePoints(n, 42 + g);
+            sb.append("    {\n");
+            sb.append("      \"id\": ").append(g + 1).append(",\n");
+            sb.append("      \"points\": [");
+            for (int i = 0; i < n; i++) {
+                if (i > 0) sb.append(", ");
+                sb.append('[').append(p[0][i]).append(", ").append(p[1][i]).append(']');
+            }
+            sb.append("]\n    }");
+            if (g < count - 1) sb.append(",");
+            sb.append("\n");
+        }
+        sb.append("  ]\n}\n");
+        try {
+            Files.write(Paths.get(outFile), sb.toString().getBytes());
+            System.out.println("Generated " + count + " point sets of " + n + " points and wrote to " + outFile);
+        } catch (IOException e) {
+            System.err.println("Failed to write input JSON: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
     private static long edgeKey(int a, int b) {
         return (((long) a) << 32) | (b & 0xffffffffL);
     }
@@ -0,0 +1,151 @@
+package cli;
+
+import java.io.*;
+import java.net.Socket;
+import java.util.Arrays;
+
+// Worker side of PartitionedRunner. Connects back to the coordinator, collects the
+// edges of one slice into primitive arrays and answers with a minimum spanning forest
+// of them. No Graph is built, so memory follows the slice, not the global V.
+//
+// Protocol (big-endian, java.io.Data*Stream):
+//   coordinator -> worker: BEGIN | EDGES, k, k x (id, v, w, weight) | END | SHUTDOWN
+//   worker -> coordinator, after END: k, then k x (id, v, w, weight)
+public class PartitionWorker {
+    static final int SHUTDOWN = 0;
+    static final int BEGIN = 1;
+    static final int EDGES = 2;
+    static final int END = 3;
+    static final int EDGE_BYTES = 4 + 4 + 4 + 8;
+
+    public static void serve(String host, int port) throws IOException {
+        try (Socket socket = new Socket(host, port)) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+            int[] ids = new int[0], from = new int[0], to = new int[0];
+            double[] weight = new double[0];
+            int m = 0;
+            while (true) {
+                int op = in.readInt();
+                if (op == SHUTDOWN) return;
+                if (op == BEGIN) {
+                    m = 0;
+                } else if (op == EDGES) {
+                    int k = in.readInt();
+                    if (ids.length < m + k) {
+                        int n = Math.max(m + k, ids.length * 2);
+                        ids = Arrays.copyOf(ids, n);
+                        from = Arrays.copyOf(from, n);
+                        to = Arrays.copyOf(to, n);
+                        weight = Arrays.copyOf(weight, n);
+                    }
+                    for (int i = 0; i < k; i++, m++) {
+                        ids[m] = in.readInt();
+                        from[m] = in.readInt();
+                        to[m] = in.readInt();
+                        weight[m] = in.readDouble();
+                    }
+                } else if (op == END) {
+                    int[] forest = forest(ids, from, to, weight, m);
+                    out.writeInt(forest.length);
+                    for (int pos : forest) {
+                        out.writeInt(ids[pos]);
+                        out.writeInt(from[pos]);
+                        out.writeInt(to[pos]);
+                        out.writeDouble(weight[pos]);
+                    }
+                    out.flush();
+                } else {
+                    throw new IOException("Unknown request " + op);
+                }
+            }
+        }
+    }
+
+    // Largest slice forest() accepts: its vertex table has a power-of-two size of at
+    // least four slots per edge, and Java arrays stop at 2^30 for that.
+    static final int MAX_SLICE_EDGES = 1 << 28;
+
+    // Minimum spanning forest of an edge list held in parallel arrays: ties are broken
+    // by ids[], and the positions of the forest edges are returned in the order they
+    // were taken. Vertices are renumbered through a hash table local to the list, so
+    // memory is O(m) however large the vertex ids are.
+    static int[] forest(int[] ids, int[] from, int[] to, double[] weight, int m) {
+        if (m > MAX_SLICE_EDGES) {
+            throw new IllegalArgumentException("Slice of " + m + " edges exceeds the " + MAX_SLICE_EDGES
+                    + " a worker can hold; use more workers");
+        }
+        // order positions by id, then sort (weight rank, id order) keys, so that ties
+        // in weight follow ids[]
+        long[] byId = new long[m];
+        for (int i = 0; i < m; i++) byId[i] = (long) ids[i] << 32 | i;
+        Arrays.sort(byId);
+        double[] distinct = Arrays.copyOf(weight, m);
+        Arrays.sort(distinct);
+        int d = 0;
+        for (int i = 0; i < m; i++) {
+            if (d == 0 || Double.compare(distinct[d - 1], distinct[i]) != 0) distinct[d++] = distinct[i];
+        }
+        long[] order = new long[m];
+        for (int k = 0; k < m; k++) {
+            int pos = (int) byId[k];
+            byId[k] = pos;
+            order[k] = (long) Arrays.binarySearch(distinct, 0, d, weight[pos]) << 32 | k;
+        }
+        Arrays.sort(order);
+
+        int size = Integer.highestOneBit(Math.max(4, 4 * m - 1)) << 1;
+        int shift = 32 - Integer.numberOfTrailingZeros(size);
+        int[] slotKey = new int[size];
+        int[] slotVal = new int[size];
+        Arrays.fill(slotVal, -1);
+        int[] parent = new int[Math.max(1, 2 * m)];
+        int[] rank = new int[parent.length];
+        int n = 0;
+
+        int[] picked = new int[m];
+        int count = 0;
+        for (int k = 0; k < m; k++) {
+            int pos = (int) byId[(int) order[k]];
+            int a = -1, b = -1;
+            for (int side = 0; side < 2; side++) {
+                int v = side == 0 ? from[pos] : to[pos];
+                int i = (v * 0x9E3779B9) >>> shift;
+                while (slotVal[i] >= 0 && slotKey[i] != v) i = (i + 1) & (size - 1);
+                if (slotVal[i] < 0) {
+                    slotKey[i] = v;
+                    slotVal[i] = n;
+                    parent[n] = n;
+                    n++;
+                }
+                int r = slotVal[i];
+                while (parent[r] != r) {
+                    parent[r] = parent[parent[r]];
+                    r = parent[r];
+                }
+                if (side == 0) a = r;
+                else b = r;
+            }
+            if (a == b) continue;
+            // union by rank, as UnionFind does
+            if (rank[a] < rank[b]) parent[a] = b;
+            else if (rank[b] < rank[a]) parent[b] = a;
+            else { parent[b] = a; rank[a]++; }
+            picked[count++] = pos;
+        }
+        return Arrays.copyOf(picked, count);
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: java cli.PartitionWorker host port");
+            return;
+        }
+        try {
+            serve(args[0], Integer.parseInt(args[1]));
+        } catch (IOException | IllegalArgumentException ex) {
+            System.err.println("Worker failed: " + ex.getMessage());
+            System.exit(1);
+        }
+    }
+}
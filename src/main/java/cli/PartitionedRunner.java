@@ -0,0 +1,379 @@
+package cli;
+
+import io.JSONStreamReader;
+import io.JSONWriter;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.*;
+
+// Coordinator for MSTs whose edge set is split across worker processes. Round 1 streams
+// the edges to the workers in round-robin chunks, and each returns a local minimum
+// spanning forest of its slice, which drops only edges that are the heaviest on some
+// cycle and so can never be in the global MST. Later rounds hand groups of fanIn
+// forests to one worker each until a single forest, the MST, remains. Neither side
+// builds a Graph.
+public class PartitionedRunner implements AutoCloseable {
+    private static final int ACCEPT_TIMEOUT_MS = 30_000;
+    private static final int CHUNK = 8192;   // edges per EDGES message
+
+    public static class Options {
+        public int workers = 4;
+        public int fanIn = 2;
+        public boolean inProcess = false;  // worker threads instead of JVMs, for tests and debugging
+        public String workerHeap = null;   // e.g. "2g", passed to each worker JVM as -Xmx
+    }
+
+    public static class Result {
+        public final int[] mstEdgeIds;
+        public final int[] mstFrom;
+        public final int[] mstTo;
+        public final double[] mstWeight;
+        public final int edges;
+        public final double totalCost;
+        public final int rounds;
+        public final long bytesSent;
+        public final long bytesReceived;
+
+        Result(Forest mst, int edges, int rounds, long bytesSent, long bytesReceived) {
+            this.mstEdgeIds = mst.ids;
+            this.mstFrom = mst.from;
+            this.mstTo = mst.to;
+            this.mstWeight = mst.weight;
+            this.edges = edges;
+            double total = 0;
+            for (double w : mst.weight) total += w;
+            this.totalCost = total;
+            this.rounds = rounds;
+            this.bytesSent = bytesSent;
+            this.bytesReceived = bytesReceived;
+        }
+    }
+
+    private static class Forest {
+        final int[] ids, from, to;
+        final double[] weight;
+
+        Forest(int k) {
+            ids = new int[k];
+            from = new int[k];
+            to = new int[k];
+            weight = new double[k];
+        }
+    }
+
+    private final Options opt;
+    private final ServerSocket server;
+    private final List<Process> processes = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private final Socket[] sockets;
+    private final DataInputStream[] in;
+    private final DataOutputStream[] out;
+
+    public PartitionedRunner(Options opt) {
+        this.opt = opt;
+        sockets = new Socket[opt.workers];
+        in = new DataInputStream[opt.workers];
+        out = new DataOutputStream[opt.workers];
+        try {
+            server = new ServerSocket(0, opt.workers, InetAddress.getLoopbackAddress());
+            server.setSoTimeout(ACCEPT_TIMEOUT_MS);
+            String host = InetAddress.getLoopbackAddress().getHostAddress();
+            int port = server.getLocalPort();
+            for (int i = 0; i < opt.workers; i++) startWorker(host, port);
+            for (int i = 0; i < opt.workers; i++) {
+                sockets[i] = server.accept();
+                in[i] = new DataInputStream(new BufferedInputStream(sockets[i].getInputStream(), 1 << 16));
+                out[i] = new DataOutputStream(new BufferedOutputStream(sockets[i].getOutputStream(), 1 << 16));
+            }
+        } catch (IOException ex) {
+            for (Process p : processes) p.destroy();
+            close();
+            throw new RuntimeException("Failed to start workers: " + ex.getMessage(), ex);
+        }
+    }
+
+    private void startWorker(String host, int port) throws IOException {
+        if (opt.inProcess) {
+            Thread t = new Thread(() -> {
+                try {
+                    PartitionWorker.serve(host, port);
+                } catch (IOException ex) {
+                    System.err.println("Worker failed: " + ex.getMessage());
+                }
+            }, "partition-worker-" + threads.size());
+            t.setDaemon(true);
+            t.start();
+            threads.add(t);
+            return;
+        }
+        List<String> cmd = new ArrayList<>();
+        cmd.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (opt.workerHeap != null) cmd.add("-Xmx" + opt.workerHeap);
+        cmd.add("-cp");
+        cmd.add(System.getProperty("java.class.path"));
+        cmd.add(PartitionWorker.class.getName());
+        cmd.add(host);
+        cmd.add(Integer.toString(port));
+        processes.add(new ProcessBuilder(cmd).inheritIO().start());
+    }
+
+    public Result run(int V, int[] from, int[] to, double[] weight) {
+        Session session = begin();
+        for (int i = 0; i < from.length; i++) {
+            if (from[i] < 0 || from[i] >= V || to[i] < 0 || to[i] >= V)
+                throw new IllegalArgumentException("Vertex out of range");
+            session.add(from[i], to[i], weight[i]);
+        }
+        return session.finish();
+    }
+
+    // Starts one MST. Edges passed to add() are numbered in order and shipped to the
+    // workers round-robin in chunks as they arrive, so the coordinator holds one chunk
+    // of the input, never the whole edge list.
+    Session begin() {
+        try {
+            return new Session();
+        } catch (IOException ex) {
+            throw new RuntimeException("Partitioned MST failed: " + ex.getMessage(), ex);
+        }
+    }
+
+    class Session {
+        private final int[] from = new int[CHUNK], to = new int[CHUNK];
+        private final double[] weight = new double[CHUNK];
+        private int buffered = 0;
+        private int edges = 0;
+        private int chunks = 0;
+        private final long[] slice = new long[opt.workers];   // edges sent to each worker
+        private long sent = 0, received = 0;
+
+        private Session() throws IOException {
+            for (int i = 0; i < opt.workers; i++) sent += command(i, PartitionWorker.BEGIN);
+        }
+
+        void add(int v, int w, double wt) {
+            from[buffered] = v;
+            to[buffered] = w;
+            weight[buffered++] = wt;
+            edges++;
+            if (buffered == CHUNK) flush();
+        }
+
+        private void flush() {
+            if (buffered == 0) return;
+            int first = edges - buffered;
+            int worker = chunks++ % opt.workers;
+            slice[worker] += buffered;
+            if (slice[worker] > PartitionWorker.MAX_SLICE_EDGES) {
+                throw new IllegalArgumentException("Input exceeds " + PartitionWorker.MAX_SLICE_EDGES
+                        + " edges per worker; use more workers");
+            }
+            try {
+                DataOutputStream o = out[worker];
+                o.writeInt(PartitionWorker.EDGES);
+                o.writeInt(buffered);
+                for (int i = 0; i < buffered; i++) {
+                    o.writeInt(first + i);
+                    o.writeInt(from[i]);
+                    o.writeInt(to[i]);
+                    o.writeDouble(weight[i]);
+                }
+            } catch (IOException ex) {
+                throw new RuntimeException("Partitioned MST failed: " + ex.getMessage(), ex);
+            }
+            sent += 8 + (long) PartitionWorker.EDGE_BYTES * buffered;
+            buffered = 0;
+        }
+
+        Result finish() {
+            flush();
+            try {
+                int rounds = 1;
+                for (int i = 0; i < opt.workers; i++) sent += command(i, PartitionWorker.END);
+                List<Forest> forests = receiveAll(opt.workers);
+                while (forests.size() > 1) {
+                    rounds++;
+                    int groups = 0;
+                    for (int i = 0; i < forests.size(); i += opt.fanIn, groups++) {
+                        sent += command(groups, PartitionWorker.BEGIN);
+                        for (Forest f : forests.subList(i, Math.min(i + opt.fanIn, forests.size()))) {
+                            sent += send(groups, f);
+                        }
+                        sent += command(groups, PartitionWorker.END);
+                    }
+                    forests = receiveAll(groups);
+                }
+                return new Result(forests.get(0), edges, rounds, sent, received);
+            } catch (IOException ex) {
+                throw new RuntimeException("Partitioned MST failed: " + ex.getMessage(), ex);
+            }
+        }
+
+        private List<Forest> receiveAll(int workers) throws IOException {
+            List<Forest> forests = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                Forest f = receive(i);
+                received += 4 + (long) PartitionWorker.EDGE_BYTES * f.ids.length;
+                forests.add(f);
+            }
+            return forests;
+        }
+    }
+
+    private long command(int worker, int op) throws IOException {
+        out[worker].writeInt(op);
+        if (op == PartitionWorker.END) out[worker].flush();
+        return 4;
+    }
+
+    private long send(int worker, Forest f) throws IOException {
+        DataOutputStream o = out[worker];
+        o.writeInt(PartitionWorker.EDGES);
+        o.writeInt(f.ids.length);
+        for (int i = 0; i < f.ids.length; i++) {
+            o.writeInt(f.ids[i]);
+            o.writeInt(f.from[i]);
+            o.writeInt(f.to[i]);
+            o.writeDouble(f.weight[i]);
+        }
+        return 8 + (long) PartitionWorker.EDGE_BYTES * f.ids.length;
+    }
+
+    private Forest receive(int worker) throws IOException {
+        DataInputStream i = in[worker];
+        Forest f = new Forest(i.readInt());
+        for (int k = 0; k < f.ids.length; k++) {
+            f.ids[k] = i.readInt();
+            f.from[k] = i.readInt();
+            f.to[k] = i.readInt();
+            f.weight[k] = i.readDouble();
+        }
+        return f;
+    }
+
+    @Override
+    public void close() {
+        for (int i = 0; i < sockets.length; i++) {
+            if (out[i] == null) continue;
+            try {
+                out[i].writeInt(PartitionWorker.SHUTDOWN);
+                out[i].flush();
+                sockets[i].close();
+            } catch (IOException ignored) {
+                // the worker is gone already
+            }
+        }
+        try {
+            if (server != null) server.close();
+        } catch (IOException ignored) {
+        }
+        for (Process p : processes) {
+            try {
+                p.waitFor();
+            } catch (InterruptedException ex) {
+                p.destroy();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Streams each graph from the input to the workers edge by edge; only the node
+    // labels and the current chunk are held, plus the forests coming back.
+    public static void run(String inputJson, String outputJson, Options opt) {
+        List<Map<String,Object>> results = new ArrayList<>();
+
+        try (PartitionedRunner runner = new PartitionedRunner(opt)) {
+            JSONStreamReader.readGraphs(inputJson, new JSONStreamReader.Handler() {
+                private int graphId;
+                private List<String> labels;
+                private Map<String, Integer> index;
+                private Session session;
+                private long t0;
+
+                @Override
+                public void graph(int id, List<String> nodes) {
+                    graphId = id;
+                    labels = nodes;
+                    index = new HashMap<>(nodes.size() * 2);
+                    for (int i = 0; i < nodes.size(); i++) index.put(nodes.get(i), i);
+                    t0 = System.nanoTime();
+                    session = runner.begin();
+                }
+
+                @Override
+                public void edge(String from, String to, double weight) {
+                    Integer f = index.get(from), t = index.get(to);
+                    if (f == null || t == null) throw new IllegalArgumentException("Unknown node label");
+                    session.add(f, t, weight);
+                }
+
+                @Override
+                public void end() {
+                    Result r = session.finish();
+                    long t1 = System.nanoTime();
+                    results.add(report(graphId, labels, r, opt, t1 - t0));
+                }
+            });
+        }
+
+        JSONWriter.writeResults(outputJson, results);
+        System.out.println("Partitioned run completed. Output written to " + outputJson);
+    }
+
+    private static Map<String,Object> report(int graphId, List<String> labels, Result r, Options opt, long nanos) {
+        Map<String,Object> report = new LinkedHashMap<>();
+        report.put("graph_id", graphId);
+        Map<String,Object> inputStats = new LinkedHashMap<>();
+        inputStats.put("vertices", labels.size());
+        inputStats.put("edges", r.edges);
+        report.put("input_stats", inputStats);
+
+        Map<String,Object> partMap = new LinkedHashMap<>();
+        List<Map<String,Object>> mstEdges = new ArrayList<>();
+        for (int i = 0; i < r.mstEdgeIds.length; i++) {
+            Map<String,Object> edgeObj = new LinkedHashMap<>();
+            edgeObj.put("from", labels.get(r.mstFrom[i]));
+            edgeObj.put("to", labels.get(r.mstTo[i]));
+            edgeObj.put("weight", r.mstWeight[i]);
+            mstEdges.add(edgeObj);
+        }
+        partMap.put("mst_edges", mstEdges);
+        partMap.put("total_cost", r.totalCost);
+        partMap.put("workers", opt.workers);
+        partMap.put("rounds", r.rounds);
+        partMap.put("bytes_sent", r.bytesSent);
+        partMap.put("bytes_received", r.bytesReceived);
+        partMap.put("execution_time_ms", nanos / 1_000_000);
+        report.put("partitioned", partMap);
+        return report;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: java cli.PartitionedRunner input.json output.json"
+                    + " [--workers N] [--fan-in N] [--in-process] [--worker-heap 2g]");
+            return;
+        }
+        Options opt = new Options();
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--workers": opt.workers = Integer.parseInt(args[++i]); break;
+                case "--fan-in": opt.fanIn = Integer.parseInt(args[++i]); break;
+                case "--in-process": opt.inProcess = true; break;
+                case "--worker-heap": opt.workerHeap = args[++i]; break;
+                default:
+                    System.out.println("Unknown option: " + args[i]);
+                    return;
+            }
+        }
+        if (opt.workers < 1 || opt.fanIn < 2) {
+            System.out.println("--workers must be at least 1 and --fan-in at least 2");
+            return;
+        }
+        run(args[0], args[1], opt);
+    }
+}
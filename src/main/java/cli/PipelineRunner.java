@@ -0,0 +1,244 @@
+package cli;
+
+import algorithms.Workspace;
+import graph.Graph;
+import io.JSONReader;
+import io.JSONReader.GraphWithId;
+import io.JSONWriter;
+import metrics.Metrics;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Streaming counterpart of BenchmarkRunner: reads one graph object per line (NDJSON)
+// from stdin or from a file that is still being appended to, computes each report on
+// a bounded pool and writes it as one line as soon as it is done, so output order
+// follows completion, not input. The reader blocks once workers + queue graphs are
+// in flight, which pushes back on the producer instead of buffering without bound.
+public class PipelineRunner {
+
+    public static class Options {
+        public int workers = Runtime.getRuntime().availableProcessors();
+        public int queueCapacity = 64;
+        public boolean follow = true;        // keep tailing a file at EOF
+        public boolean append = false;       // append to an existing output file instead of truncating it
+        public long pollMs = 200;
+        public long idleExitMs = 0;          // in follow mode, stop after this long without input; 0 = never
+        public long logIntervalMs = 5_000;
+        public BenchmarkRunner.Options report = new BenchmarkRunner.Options();
+    }
+
+    private class WorkerState {
+        final Workspace ws = new Workspace();
+        Graph G;
+
+        WorkerState() { workerStates.incrementAndGet(); }
+    }
+
+    private final Options opt;
+    private final Writer out;
+    private final ThreadPoolExecutor pool;
+    private final Semaphore slots;
+    private final ThreadLocal<WorkerState> state = ThreadLocal.withInitial(WorkerState::new);
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicInteger workerStates = new AtomicInteger();
+
+    public PipelineRunner(Options opt, Writer out) {
+        this.opt = opt;
+        this.out = out;
+        // the semaphore is the bound; a bounded executor queue could still reject a task
+        // in the window between a slot being released and its worker thread going idle
+        pool = new ThreadPoolExecutor(opt.workers, opt.workers, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>());
+        slots = new Semaphore(opt.workers + opt.queueCapacity);
+    }
+
+    public void run(InputStream in, boolean follow) throws IOException, InterruptedException {
+        ScheduledExecutorService logger = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pipeline-stats");
+            t.setDaemon(true);
+            return t;
+        });
+        long start = System.nanoTime();
+        logger.scheduleAtFixedRate(() -> logStats(start), opt.logIntervalMs, opt.logIntervalMs, TimeUnit.MILLISECONDS);
+        try {
+            LineReader lines = new LineReader(in, follow);
+            String line;
+            while ((line = lines.next()) != null) {
+                if (line.isBlank()) continue;
+                long lineNo = received.incrementAndGet();
+                slots.acquire();
+                int inFlight = opt.workers + opt.queueCapacity - slots.availablePermits();
+                peakInFlight.accumulateAndGet(inFlight, Math::max);
+                String text = line;
+                pool.execute(() -> {
+                    try {
+                        process(lineNo, text);
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            logger.shutdownNow();
+            out.flush();
+            logStats(start);
+        }
+    }
+
+    private void process(long lineNo, String line) {
+        GraphWithId gw;
+        try {
+            gw = parse(lineNo, line);
+        } catch (IllegalArgumentException ex) {
+            failed.incrementAndGet();
+            System.err.println("pipeline: " + ex.getMessage());
+            return;
+        }
+        try {
+            WorkerState s = state.get();
+            Metrics build = new Metrics();
+            s.G = BenchmarkRunner.load(gw, s.G, build);
+            Map<String,Object> report = BenchmarkRunner.report(gw, s.G, build, s.ws, opt.report);
+            String json = JSONWriter.toJsonLine(report);
+            synchronized (out) {
+                out.write(json);
+                out.write('\n');
+                out.flush();
+            }
+            completed.incrementAndGet();
+        } catch (RuntimeException | IOException ex) {
+            failed.incrementAndGet();
+            System.err.println("pipeline: line " + lineNo + " failed: " + ex.getMessage());
+        }
+    }
+
+    // parseGraph only knows positions within the line, so its errors are wrapped with
+    // the line number they came from.
+    private static GraphWithId parse(long lineNo, String line) {
+        GraphWithId gw;
+        try {
+            gw = JSONReader.parseGraph(line);
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Malformed graph JSON on line " + lineNo + ": " + ex.getMessage(), ex);
+        }
+        if (gw == null) throw new IllegalArgumentException("Malformed graph JSON on line " + lineNo + ": no \"id\"");
+        return gw;
+    }
+
+    private void logStats(long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("pipeline: received=%d completed=%d failed=%d queued=%d running=%d peak_in_flight=%d rate=%.1f graphs/s%n",
+                received.get(), completed.get(), failed.get(), pool.getQueue().size(), pool.getActiveCount(),
+                peakInFlight.get(), seconds > 0 ? completed.get() / seconds : 0.0);
+    }
+
+    public long received() { return received.get(); }
+
+    public long completed() { return completed.get(); }
+
+    public long failed() { return failed.get(); }
+
+    // most graphs read but not yet written at any one time; never above workers + queue
+    public int peakInFlight() { return peakInFlight.get(); }
+
+    // worker threads that have set up a workspace; each keeps its own across graphs
+    public int workerStates() { return workerStates.get(); }
+
+    // Splits a byte stream into lines. At EOF a following reader keeps the partial last
+    // line and polls for more, so a producer appending mid-line is never cut short.
+    private class LineReader {
+        private final InputStream in;
+        private final boolean follow;
+        private final byte[] buf = new byte[1 << 16];
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+        private int pos = 0, len = 0;
+
+        LineReader(InputStream in, boolean follow) {
+            this.in = in;
+            this.follow = follow;
+        }
+
+        String next() throws IOException, InterruptedException {
+            long idleSince = System.nanoTime();
+            while (true) {
+                while (pos < len) {
+                    byte b = buf[pos++];
+                    if (b == '\n') {
+                        String line = pending.toString(StandardCharsets.UTF_8);
+                        pending.reset();
+                        return line;
+                    }
+                    pending.write(b);
+                }
+                len = in.read(buf);
+                pos = 0;
+                if (len > 0) {
+                    idleSince = System.nanoTime();
+                    continue;
+                }
+                len = 0;
+                boolean idle = opt.idleExitMs > 0 && System.nanoTime() - idleSince > opt.idleExitMs * 1_000_000L;
+                if (!follow || idle) {
+                    if (pending.size() == 0) return null;
+                    String line = pending.toString(StandardCharsets.UTF_8);
+                    pending.reset();
+                    return line;
+                }
+                Thread.sleep(opt.pollMs);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("Usage: java cli.PipelineRunner <input.ndjson|-> <output.ndjson|-> [--workers N] [--queue N]"
+                    + " [--no-follow] [--append] [--poll-ms N] [--idle-exit-ms N] [--log-interval-ms N] "
+                    + BenchmarkRunner.OPTIONS_USAGE);
+            return;
+        }
+        Options opt = new Options();
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--workers": opt.workers = Integer.parseInt(args[++i]); break;
+                case "--queue": opt.queueCapacity = Integer.parseInt(args[++i]); break;
+                case "--no-follow": opt.follow = false; break;
+                case "--append": opt.append = true; break;
+                case "--poll-ms": opt.pollMs = Long.parseLong(args[++i]); break;
+                case "--idle-exit-ms": opt.idleExitMs = Long.parseLong(args[++i]); break;
+                case "--log-interval-ms": opt.logIntervalMs = Long.parseLong(args[++i]); break;
+                default:
+                    int last = BenchmarkRunner.parseOption(args, i, opt.report);
+                    if (last < 0) {
+                        System.out.println("Unknown option: " + args[i]);
+                        return;
+                    }
+                    i = last;
+            }
+        }
+
+        if (opt.report.format == BenchmarkRunner.Format.BINARY) {
+            System.out.println("--format binary is not line-oriented; use json or compact");
+            return;
+        }
+
+        boolean stdin = args[0].equals("-");
+        InputStream in = stdin ? System.in : new FileInputStream(args[0]);
+        OutputStream os = args[1].equals("-") ? System.out : new FileOutputStream(args[1], opt.append);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8))) {
+            // stdin ends at EOF; a file is tailed unless --no-follow
+            new PipelineRunner(opt, out).run(in, !stdin && opt.follow);
+        } finally {
+            if (!stdin) in.close();
+        }
+    }
+}
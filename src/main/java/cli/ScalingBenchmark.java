@@ -0,0 +1,265 @@
+package cli;
+
+import algorithms.Kruskal;
+import algorithms.Prim;
+import graph.Graph;
+import metrics.Metrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+public class ScalingBenchmark {
+    private static final String DEFAULT_OUTPUT = "scaling_results.csv";
+    private static final String DEFAULT_BASELINE = "scaling_baseline.csv";
+    private static final String HEADER =
+            "Algorithm\tDensity\tVertices\tEdges\tMedian_ms\tP95_ms\tPQ_Ops\tEdgePushes\tUF_Unions\tEdgesConsidered\tUF_Finds";
+
+    // Rough footprint of Graph: one Edge object plus three list slots per edge,
+    // and an ArrayList per vertex. Used to skip points that cannot fit in the heap.
+    private static final long BYTES_PER_EDGE = 60;
+    private static final long BYTES_PER_VERTEX = 100;
+
+    static class Options {
+        int minV = 1_000;
+        int maxV = 10_000_000;
+        double[] densities = {1.5, 4.0, 16.0};
+        int warmup = 2;
+        int reps = 5;
+        long seed = 42;
+        String output = DEFAULT_OUTPUT;
+        String baseline = DEFAULT_BASELINE;
+        boolean saveBaseline = false;
+        double threshold = 0.25;    // allowed relative slowdown of the median
+        double minDeltaMs = 1.0;    // ignore slowdowns smaller than timer noise
+        String compare = null;      // results CSV to check against the baseline instead of measuring
+    }
+
+    static class Point {
+        final String algorithm;
+        final double density;
+        final int vertices;
+        final int edges;
+        final double medianMs;
+        final double p95Ms;
+        final Metrics ops;
+
+        Point(String algorithm, double density, int vertices, int edges, double medianMs, double p95Ms, Metrics ops) {
+            this.algorithm = algorithm;
+            this.density = density;
+            this.vertices = vertices;
+            this.edges = edges;
+            this.medianMs = medianMs;
+            this.p95Ms = p95Ms;
+            this.ops = ops;
+        }
+
+        String key() { return key(algorithm, density, vertices); }
+
+        static String key(String algorithm, double density, int vertices) {
+            return algorithm + "/" + density + "/" + vertices;
+        }
+    }
+
+    public static int run(Options opt) {
+        if (opt.compare != null) {
+            List<Point> points = readPoints(Paths.get(opt.compare));
+            printGrowthExponents(points);
+            return compareWithBaseline(points, opt);
+        }
+        List<Point> points = new ArrayList<>();
+        long heap = Runtime.getRuntime().maxMemory();
+
+        for (double density : opt.densities) {
+            for (long V = opt.minV; V <= opt.maxV; V *= 10) {
+                int targetEdges = (int) Math.min(Integer.MAX_VALUE, Math.max(V - 1, Math.round(V * density)));
+                long needed = targetEdges * BYTES_PER_EDGE + V * BYTES_PER_VERTEX;
+                if (needed > heap * 7 / 10) {
+                    System.out.printf("Skipping V=%d density=%.1f: needs ~%d MB, heap is %d MB%n",
+                            V, density, needed >> 20, heap >> 20);
+                    continue;
+                }
+                Graph G = GraphGenerator.generateGraph((int) V, targetEdges, opt.seed);
+                points.add(measure("Prim", density, G, opt));
+                points.add(measure("Kruskal", density, G, opt));
+                System.out.printf("V=%d E=%d density=%.1f  Prim median=%.2f ms  Kruskal median=%.2f ms%n",
+                        G.V(), G.E(), density,
+                        points.get(points.size() - 2).medianMs, points.get(points.size() - 1).medianMs);
+            }
+        }
+
+        printGrowthExponents(points);
+        writeCsv(opt.output, points);
+        System.out.println("Scaling results written to " + opt.output);
+
+        if (opt.saveBaseline) {
+            writeCsv(opt.baseline, points);
+            System.out.println("Baseline saved to " + opt.baseline);
+            return 0;
+        }
+        return compareWithBaseline(points, opt);
+    }
+
+    private static Point measure(String algorithm, double density, Graph G, Options opt) {
+        for (int i = 0; i < opt.warmup; i++) runOnce(algorithm, G, new Metrics());
+        double[] times = new double[opt.reps];
+        Metrics last = null;
+        for (int i = 0; i < opt.reps; i++) {
+            last = new Metrics();
+            long t0 = System.nanoTime();
+            runOnce(algorithm, G, last);
+            times[i] = (System.nanoTime() - t0) / 1e6;
+        }
+        Arrays.sort(times);
+        return new Point(algorithm, density, G.V(), G.E(), percentile(times, 0.5), percentile(times, 0.95), last);
+    }
+
+    private static double runOnce(String algorithm, Graph G, Metrics m) {
+        if (algorithm.equals("Prim")) return new Prim(G, m).totalCost();
+        return new Kruskal(G, m).totalCost();
+    }
+
+    // Nearest-rank percentile over sorted samples.
+    private static double percentile(double[] sorted, double p) {
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    private static void printGrowthExponents(List<Point> points) {
+        Set<Double> densities = new LinkedHashSet<>();
+        for (Point p : points) densities.add(p.density);
+        for (String algorithm : List.of("Prim", "Kruskal")) {
+            for (double density : densities) {
+                List<Point> series = new ArrayList<>();
+                for (Point p : points) {
+                    if (p.algorithm.equals(algorithm) && p.density == density && p.medianMs > 0) series.add(p);
+                }
+                if (series.size() < 2) continue;
+                int[] edges = new int[series.size()];
+                double[] medianMs = new double[series.size()];
+                for (int i = 0; i < edges.length; i++) {
+                    edges[i] = series.get(i).edges;
+                    medianMs[i] = series.get(i).medianMs;
+                }
+                System.out.printf("%s density=%.1f: time ~ E^%.2f over %d points%n",
+                        algorithm, density, growthExponent(edges, medianMs), edges.length);
+            }
+        }
+    }
+
+    // Least-squares slope of log(median) against log(E): time ~ E^k. Points with a zero
+    // median carry no information on a log scale and are left out; NaN below two points.
+    public static double growthExponent(int[] edges, double[] medianMs) {
+        double sx = 0, sy = 0, sxx = 0, sxy = 0;
+        int n = 0;
+        for (int i = 0; i < edges.length; i++) {
+            if (medianMs[i] <= 0) continue;
+            double x = Math.log(edges[i]), y = Math.log(medianMs[i]);
+            sx += x; sy += y; sxx += x * x; sxy += x * y;
+            n++;
+        }
+        if (n < 2) return Double.NaN;
+        return (n * sxy - sx * sy) / (n * sxx - sx * sx);
+    }
+
+    private static int compareWithBaseline(List<Point> points, Options opt) {
+        Path path = Paths.get(opt.baseline);
+        if (!Files.exists(path)) {
+            System.out.println("No baseline at " + opt.baseline + "; run with --save-baseline to create one");
+            return 0;
+        }
+        Map<String, Double> baseline = new HashMap<>();
+        for (Point p : readPoints(path)) baseline.put(p.key(), p.medianMs);
+        int regressions = 0;
+        for (Point p : points) {
+            Double before = baseline.get(p.key());
+            if (before == null) continue;
+            if (p.medianMs > before * (1 + opt.threshold) && p.medianMs - before > opt.minDeltaMs) {
+                System.out.printf("REGRESSION %s V=%d density=%.1f: median %.2f ms vs baseline %.2f ms (+%.0f%%)%n",
+                        p.algorithm, p.vertices, p.density, p.medianMs, before, (p.medianMs / before - 1) * 100);
+                regressions++;
+            }
+        }
+        if (regressions > 0) {
+            System.out.println(regressions + " point(s) regressed beyond " + (int) (opt.threshold * 100) + "%");
+            return 1;
+        }
+        System.out.println("No regressions against " + opt.baseline);
+        return 0;
+    }
+
+    // Points of a CSV written by writeCsv; the operation counts are not read back.
+    private static List<Point> readPoints(Path path) {
+        try {
+            List<Point> points = new ArrayList<>();
+            List<String> lines = Files.readAllLines(path);
+            for (int i = 1; i < lines.size(); i++) {
+                String[] f = lines.get(i).split("\t");
+                if (f.length < 6) continue;
+                points.add(new Point(f[0], Double.parseDouble(f[1]), Integer.parseInt(f[2]), Integer.parseInt(f[3]),
+                        Double.parseDouble(f[4]), Double.parseDouble(f[5]), null));
+            }
+            return points;
+        } catch (IOException ex) {
+            throw new RuntimeException("Failed to read " + path + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    private static void writeCsv(String file, List<Point> points) {
+        StringBuilder sb = new StringBuilder(HEADER).append('\n');
+        for (Point p : points) {
+            sb.append(p.algorithm).append('\t')
+              .append(p.density).append('\t')
+              .append(p.vertices).append('\t')
+              .append(p.edges).append('\t')
+              .append(String.format(Locale.ROOT, "%.3f", p.medianMs)).append('\t')
+              .append(String.format(Locale.ROOT, "%.3f", p.p95Ms)).append('\t')
+              .append(p.ops.getPqOps()).append('\t')
+              .append(p.ops.getEdgePushes()).append('\t')
+              .append(p.ops.getUfUnions()).append('\t')
+              .append(p.ops.getEdgesConsidered()).append('\t')
+              .append(p.ops.getUfFinds()).append('\n');
+        }
+        try {
+            Files.write(Paths.get(file), sb.toString().getBytes());
+        } catch (IOException ex) {
+            throw new RuntimeException("Failed to write " + file + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    // Parses the command line and runs; the result is the process exit code, non-zero
+    // when a point regressed against the baseline.
+    public static int run(String... args) {
+        Options opt = new Options();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--min-v": opt.minV = Integer.parseInt(args[++i]); break;
+                case "--max-v": opt.maxV = Integer.parseInt(args[++i]); break;
+                case "--densities":
+                    opt.densities = Arrays.stream(args[++i].split(",")).mapToDouble(Double::parseDouble).toArray();
+                    break;
+                case "--warmup": opt.warmup = Integer.parseInt(args[++i]); break;
+                case "--reps": opt.reps = Integer.parseInt(args[++i]); break;
+                case "--seed": opt.seed = Long.parseLong(args[++i]); break;
+                case "--out": opt.output = args[++i]; break;
+                case "--baseline": opt.baseline = args[++i]; break;
+                case "--save-baseline": opt.saveBaseline = true; break;
+                case "--threshold": opt.threshold = Double.parseDouble(args[++i]); break;
+                case "--min-delta-ms": opt.minDeltaMs = Double.parseDouble(args[++i]); break;
+                case "--compare": opt.compare = args[++i]; break;
+                default:
+                    System.out.println("Usage: java cli.ScalingBenchmark [--min-v N] [--max-v N] [--densities 1.5,4,16]"
+                            + " [--warmup N] [--reps N] [--seed N] [--out file] [--baseline file] [--save-baseline]"
+                            + " [--threshold 0.25] [--min-delta-ms 1.0] [--compare results.csv]");
+                    return 0;
+            }
+        }
+        return run(opt);
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+}
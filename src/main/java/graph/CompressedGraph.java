@@ -0,0 +1,184 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Immutable adjacency in one byte array. Each vertex's neighbours are sorted by id;
+// the first is stored as a zigzag varint relative to the vertex itself and the rest
+// as varint gaps, each followed by its weight. Weights are dictionary codes of one
+// or two bytes when there are at most 65536 distinct values (the generator only
+// produces 1..100), and raw 8-byte doubles otherwise. Read it with a Cursor.
+public final class CompressedGraph {
+    private final int V;
+    private final int E;
+    private final int[] offsets;       // adjacency of v is data[offsets[v] .. offsets[v + 1])
+    private final byte[] data;
+    private final double[] dictionary; // null when weights are stored raw
+    private final int weightBytes;     // 1, 2 or 8
+    private final String[] labels;     // null for unlabelled graphs
+
+    private CompressedGraph(Graph source, int[] offsets, byte[] data, double[] dictionary, int weightBytes) {
+        this.V = source.V();
+        this.E = source.E();
+        String[] l = source.labelArray();
+        this.labels = l == null ? null : Arrays.copyOf(l, V);
+        this.offsets = offsets;
+        this.data = data;
+        this.dictionary = dictionary;
+        this.weightBytes = weightBytes;
+    }
+
+    public static CompressedGraph from(Graph G) {
+        int V = G.V();
+
+        Map<Double, Integer> codes = new HashMap<>();
+        for (Edge e : G.edges()) {
+            codes.putIfAbsent(e.weight(), codes.size());
+            if (codes.size() > 1 << 16) break;
+        }
+        double[] dictionary = null;
+        int weightBytes = 8;
+        if (codes.size() <= 1 << 16) {
+            dictionary = new double[codes.size()];
+            for (Map.Entry<Double, Integer> c : codes.entrySet()) dictionary[c.getValue()] = c.getKey();
+            weightBytes = codes.size() <= 1 << 8 ? 1 : 2;
+        }
+
+        Buffer out = new Buffer((int) Math.min(Integer.MAX_VALUE - 8, Math.max(16L, G.E() * 2L * (2 + weightBytes))));
+        int[] offsets = new int[V + 1];
+        long[] sorted = new long[0];
+        for (int v = 0; v < V; v++) {
+            offsets[v] = out.size;
+            // sort (neighbour, weight code or edge index) pairs packed in a long
+            int deg = 0;
+            for (Edge e : G.adj(v)) deg++;
+            if (sorted.length < deg) sorted = new long[Math.max(deg, sorted.length * 2)];
+            Edge[] raw = dictionary == null ? new Edge[deg] : null;
+            int k = 0;
+            for (Edge e : G.adj(v)) {
+                long payload = dictionary != null ? codes.get(e.weight()) : k;
+                if (raw != null) raw[k] = e;
+                sorted[k++] = ((long) e.other(v) << 32) | payload;
+            }
+            Arrays.sort(sorted, 0, deg);
+            int prev = v;
+            for (int i = 0; i < deg; i++) {
+                int w = (int) (sorted[i] >>> 32);
+                int payload = (int) sorted[i];
+                if (i == 0) out.writeVarint((w - v) << 1 ^ (w - v) >> 31);
+                else out.writeVarint(w - prev);
+                prev = w;
+                if (weightBytes == 8) out.writeLong(Double.doubleToRawLongBits(raw[payload].weight()));
+                else if (weightBytes == 2) out.writeShort(payload);
+                else out.writeByte(payload);
+            }
+        }
+        offsets[V] = out.size;
+        return new CompressedGraph(G, offsets, Arrays.copyOf(out.bytes, out.size), dictionary, weightBytes);
+    }
+
+    public int V() { return V; }
+
+    public int E() { return E; }
+
+    public String labelOf(int v) { return labels == null ? Integer.toString(v) : labels[v]; }
+
+    public long sizeInBytes() {
+        return data.length + 4L * offsets.length + (dictionary == null ? 0 : 8L * dictionary.length);
+    }
+
+    public double bytesPerEdge() { return E == 0 ? 0 : (double) sizeInBytes() / E; }
+
+    public Cursor cursor() { return new Cursor(); }
+
+    // Sequential decoder over one vertex's neighbours; reuse one per thread.
+    public final class Cursor {
+        private int pos;
+        private int end;
+        private int origin;
+        private int neighbor;
+        private double weight;
+
+        private Cursor() { }
+
+        public void reset(int v) {
+            pos = offsets[v];
+            end = offsets[v + 1];
+            origin = v;
+            neighbor = -1;
+        }
+
+        public boolean next() {
+            if (pos >= end) return false;
+            int x = readVarint();
+            if (neighbor < 0) neighbor = origin + ((x >>> 1) ^ -(x & 1));
+            else neighbor += x;
+            if (weightBytes == 1) {
+                weight = dictionary[data[pos++] & 0xff];
+            } else if (weightBytes == 2) {
+                weight = dictionary[(data[pos] & 0xff) << 8 | (data[pos + 1] & 0xff)];
+                pos += 2;
+            } else {
+                long bits = 0;
+                for (int i = 0; i < 8; i++) bits = bits << 8 | (data[pos++] & 0xff);
+                weight = Double.longBitsToDouble(bits);
+            }
+            return true;
+        }
+
+        public int neighbor() { return neighbor; }
+
+        public double weight() { return weight; }
+
+        private int readVarint() {
+            int x = 0, shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                x |= (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            return x;
+        }
+    }
+
+    private static final class Buffer {
+        byte[] bytes;
+        int size;
+
+        Buffer(int capacity) { bytes = new byte[capacity]; }
+
+        private void ensure(int n) {
+            if ((long) size + n > bytes.length) {
+                if (bytes.length == Integer.MAX_VALUE - 8) throw new IllegalStateException("Compressed adjacency exceeds 2 GB");
+                bytes = Arrays.copyOf(bytes, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(size + n, 2L * bytes.length)));
+            }
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            bytes[size++] = (byte) b;
+        }
+
+        void writeShort(int s) {
+            ensure(2);
+            bytes[size++] = (byte) (s >>> 8);
+            bytes[size++] = (byte) s;
+        }
+
+        void writeLong(long x) {
+            ensure(8);
+            for (int i = 56; i >= 0; i -= 8) bytes[size++] = (byte) (x >>> i);
+        }
+
+        void writeVarint(int x) {
+            ensure(5);
+            while ((x & ~0x7f) != 0) {
+                bytes[size++] = (byte) ((x & 0x7f) | 0x80);
+                x >>>= 7;
+            }
+            bytes[size++] = (byte) x;
+        }
+    }
+}
@@ -4,6 +4,7 @@ public class Edge implements Comparable<Edge> {
     private int v;
     private int w;
     private double weight;
+    private int id = -1;   // index in the graph that added it last, -1 until added
 
     public Edge(int v, int w, double weight) {
         this.v = v;
@@ -21,6 +22,10 @@ public class Edge implements Comparable<Edge> {
 
     public double weight() { return weight; }
 
+    public int id() { return id; }
+
+    void setId(int id) { this.id = id; }
+
     @Override
     public int compareTo(Edge o) {
         return Double.compare(this.weight, o.weight);
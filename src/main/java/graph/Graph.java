@@ -3,11 +3,11 @@ package graph;
 import java.util.*;
 
 public class Graph {
-    private final int V;
-    private final List<Edge>[] adj;
+    private int V;
+    private List<Edge>[] adj;
     private final List<Edge> edges;
-    private final String[] labels; // index -> label
-    private final Map<String, Integer> labelToIndex;
+    private String[] labels; // index -> label
+    private Map<String, Integer> labelToIndex;
 
     @SuppressWarnings("unchecked")
     public Graph(List<String> nodeLabels) {
@@ -23,31 +23,95 @@ public class Graph {
         }
     }
 
+    // Unlabelled graph for generated inputs: vertex i is labelled by its index,
+    // without paying for a String[] and a HashMap on millions of vertices.
+    @SuppressWarnings("unchecked")
+    public Graph(int V) {
+        this.V = V;
+        adj = (List<Edge>[]) new List[V];
+        for (int i = 0; i < V; i++) adj[i] = new ArrayList<>();
+        edges = new ArrayList<>();
+        labels = null;
+        labelToIndex = null;
+    }
+
+    // Reuses this graph for the next input of a batch: adjacency lists, the edge list
+    // and the label map keep their capacity instead of being reallocated per graph.
+    public void reset(List<String> nodeLabels) {
+        int n = nodeLabels.size();
+        clear(n);
+        if (labels == null || labels.length < n) labels = new String[n];
+        if (labelToIndex == null) labelToIndex = new HashMap<>();
+        else labelToIndex.clear();
+        V = n;
+        for (int i = 0; i < V; i++) {
+            labels[i] = nodeLabels.get(i);
+            labelToIndex.put(labels[i], i);
+        }
+    }
+
+    public void reset(int n) {
+        clear(n);
+        labels = null;
+        labelToIndex = null;
+        V = n;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void clear(int n) {
+        if (adj.length < n) {
+            List<Edge>[] grown = (List<Edge>[]) new List[n];
+            System.arraycopy(adj, 0, grown, 0, adj.length);
+            for (int i = adj.length; i < n; i++) grown[i] = new ArrayList<>();
+            adj = grown;
+        }
+        for (int i = 0; i < Math.max(n, V); i++) adj[i].clear();
+        edges.clear();
+    }
+
     public int V() { return V; }
 
     public int E() { return edges.size(); }
 
-    public boolean hasLabel(String label) { return labelToIndex.containsKey(label); }
+    public boolean hasLabel(String label) {
+        if (labelToIndex == null) return unlabelledIndex(label) >= 0;
+        return labelToIndex.containsKey(label);
+    }
 
     public int indexOf(String label) {
-        Integer i = labelToIndex.get(label);
-        if (i == null) throw new IllegalArgumentException("Unknown label: " + label);
+        Integer i = labelToIndex == null ? unlabelledIndex(label) : labelToIndex.get(label);
+        if (i == null || i < 0) throw new IllegalArgumentException("Unknown label: " + label);
         return i;
     }
 
+    String[] labelArray() { return labels; }
+
     public String labelOf(int idx) {
+        if (labels == null) return Integer.toString(idx);
         return labels[idx];
     }
 
+    private int unlabelledIndex(String label) {
+        try {
+            int i = Integer.parseInt(label);
+            return i >= 0 && i < V ? i : -1;
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
     public void addEdge(String fromLabel, String toLabel, double weight) {
-        if (!labelToIndex.containsKey(fromLabel) || !labelToIndex.containsKey(toLabel))
+        if (!hasLabel(fromLabel) || !hasLabel(toLabel))
             throw new IllegalArgumentException("Unknown node label");
         int v = indexOf(fromLabel);
         int w = indexOf(toLabel);
-        Edge e = new Edge(v, w, weight);
-        adj[v].add(e);
-        adj[w].add(e);
-        edges.add(e);
+        addEdge(new Edge(v, w, weight));
+    }
+
+    public void addEdge(int v, int w, double weight) {
+        if (v < 0 || v >= V || w < 0 || w >= V)
+            throw new IllegalArgumentException("Vertex out of range");
+        addEdge(new Edge(v, w, weight));
     }
 
     public void addEdge(Edge e) {
@@ -55,6 +119,7 @@ public class Graph {
         int w = e.other(v);
         adj[v].add(e);
         adj[w].add(e);
+        e.setId(edges.size());
         edges.add(e);
     }
 
@@ -62,6 +127,8 @@ public class Graph {
 
     public Iterable<Edge> edges() { return edges; }
 
+    public Edge edge(int i) { return edges.get(i); }
+
     public Edge[] edgesArray() { return edges.toArray(new Edge[0]); }
 
 }
@@ -0,0 +1,114 @@
+package io;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.BinaryResultWriter.*;
+
+// Reads BinaryResultWriter files into the same shapes JSONReader.readResults returns,
+// so either encoding can be compared with the other.
+public class BinaryResultReader {
+    private final DataInputStream in;
+    private final List<String> keys = new ArrayList<>();
+
+    private BinaryResultReader(DataInputStream in) { this.in = in; }
+
+    @SuppressWarnings("unchecked")
+    public static List<Map<String,Object>> readResults(String filename) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(filename), 1 << 16))) {
+            if (in.readInt() != MAGIC) throw new IllegalArgumentException(filename + " is not a binary results file");
+            int version = in.readUnsignedByte();
+            if (version != VERSION) throw new IllegalArgumentException("Unsupported binary results version " + version);
+            BinaryResultReader r = new BinaryResultReader(in);
+            int n = r.readVarint();
+            List<Map<String,Object>> results = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) results.add((Map<String,Object>) r.readValue());
+            return results;
+        } catch (IOException ex) {
+            throw new RuntimeException("Failed to read binary results: " + ex.getMessage(), ex);
+        }
+    }
+
+    private Object readValue() throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case NULL: return null;
+            case FALSE: return Boolean.FALSE;
+            case TRUE: return Boolean.TRUE;
+            case LONG: {
+                long x = readVarlong();
+                return (x >>> 1) ^ -(x & 1);
+            }
+            case DOUBLE: return in.readDouble();
+            case STRING: return readString();
+            case IDS: {
+                int n = readVarint();
+                List<Object> ids = new ArrayList<>(n);
+                long id = 0;
+                for (int i = 0; i < n; i++) {
+                    id += readVarint();
+                    ids.add(id);
+                }
+                return ids;
+            }
+            case LIST: {
+                int n = readVarint();
+                List<Object> list = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) list.add(readValue());
+                return list;
+            }
+            case MAP: {
+                int n = readVarint();
+                Map<String,Object> m = new LinkedHashMap<>();
+                for (int i = 0; i < n; i++) {
+                    String key = readKey();
+                    m.put(key, readValue());
+                }
+                return m;
+            }
+            default: throw new IllegalArgumentException("Unknown value tag " + tag);
+        }
+    }
+
+    private String readKey() throws IOException {
+        int k = readVarint();
+        if (k > 0) return keys.get(k - 1);
+        String key = readString();
+        keys.add(key);
+        return key;
+    }
+
+    private String readString() throws IOException {
+        byte[] b = new byte[readVarint()];
+        in.readFully(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private int readVarint() throws IOException {
+        int x = 0, shift = 0, b;
+        do {
+            b = in.readUnsignedByte();
+            x |= (b & 0x7f) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return x;
+    }
+
+    private long readVarlong() throws IOException {
+        long x = 0;
+        int shift = 0, b;
+        do {
+            b = in.readUnsignedByte();
+            x |= (long) (b & 0x7f) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return x;
+    }
+}
@@ -0,0 +1,116 @@
+package io;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Binary form of a results list, read back by BinaryResultReader. After the magic and
+// version every value is a tag byte and a payload. An int[] (an MST as edge ids into
+// the input) is sorted and stored as varint gaps, usually one byte per edge; everything
+// else in a report, the stats block, keeps its map structure, with each key spelt out
+// once per file and referred to by number afterwards.
+public class BinaryResultWriter {
+    static final int MAGIC = 0x4D535452;   // "MSTR"
+    static final int VERSION = 1;
+
+    static final int NULL = 0, FALSE = 1, TRUE = 2, LONG = 3, DOUBLE = 4, STRING = 5, LIST = 6, MAP = 7, IDS = 8;
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> keys = new HashMap<>();
+
+    private BinaryResultWriter(DataOutputStream out) { this.out = out; }
+
+    public static void writeResults(String outputFile, List<Map<String,Object>> results) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(outputFile), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            BinaryResultWriter w = new BinaryResultWriter(out);
+            w.writeVarint(results.size());
+            for (Map<String,Object> r : results) w.writeValue(r);
+        } catch (IOException ex) {
+            throw new RuntimeException("Failed to write binary results: " + ex.getMessage(), ex);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeValue(Object v) throws IOException {
+        if (v == null) {
+            out.writeByte(NULL);
+        } else if (v instanceof Boolean) {
+            out.writeByte((Boolean) v ? TRUE : FALSE);
+        } else if (v instanceof Integer || v instanceof Long) {
+            out.writeByte(LONG);
+            long x = ((Number) v).longValue();
+            writeVarlong(x << 1 ^ x >> 63);
+        } else if (v instanceof Number) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(((Number) v).doubleValue());
+        } else if (v instanceof int[]) {
+            out.writeByte(IDS);
+            int[] ids = ((int[]) v).clone();
+            Arrays.sort(ids);
+            writeVarint(ids.length);
+            int prev = 0;
+            for (int id : ids) {
+                writeVarint(id - prev);
+                prev = id;
+            }
+        } else if (v instanceof List) {
+            out.writeByte(LIST);
+            List<Object> list = (List<Object>) v;
+            writeVarint(list.size());
+            for (Object item : list) writeValue(item);
+        } else if (v instanceof Map) {
+            out.writeByte(MAP);
+            Map<String,Object> m = (Map<String,Object>) v;
+            writeVarint(m.size());
+            for (Map.Entry<String,Object> e : m.entrySet()) {
+                writeKey(e.getKey());
+                writeValue(e.getValue());
+            }
+        } else {
+            out.writeByte(STRING);
+            writeString(v.toString());
+        }
+    }
+
+    // 0 introduces a new key, which takes the next number; n > 0 repeats key n - 1
+    private void writeKey(String key) throws IOException {
+        Integer k = keys.get(key);
+        if (k != null) {
+            writeVarint(k + 1);
+            return;
+        }
+        keys.put(key, keys.size());
+        writeVarint(0);
+        writeString(key);
+    }
+
+    private void writeString(String s) throws IOException {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        writeVarint(b.length);
+        out.write(b);
+    }
+
+    private void writeVarint(int x) throws IOException {
+        while ((x & ~0x7f) != 0) {
+            out.writeByte((x & 0x7f) | 0x80);
+            x >>>= 7;
+        }
+        out.writeByte(x);
+    }
+
+    private void writeVarlong(long x) throws IOException {
+        while ((x & ~0x7fL) != 0) {
+            out.writeByte((int) (x & 0x7f) | 0x80);
+            x >>>= 7;
+        }
+        out.writeByte((int) x);
+    }
+}
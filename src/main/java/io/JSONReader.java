@@ -2,6 +2,7 @@ package io;
 
 import graph.Graph;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
@@ -15,12 +16,15 @@ public class JSONReader {
         public int id;
         public List<String> nodes;
         public List<EdgeTriple> edges;
+        // coordinates from an optional "points": [[x, y], ...] array, one per node; null without it
+        public double[] x, y;
         public GraphWithId(int id) { this.id = id; nodes = new ArrayList<>(); edges = new ArrayList<>(); }
     }
 
     public static class EdgeTriple {
         public String from, to;
         public double weight;
+        public int index;   // position in the input's "edges" array, counting malformed edges that were dropped
         public EdgeTriple(String from, String to, double weight) {
             this.from = from; this.to = to; this.weight = weight;
         }
@@ -48,6 +52,25 @@ public class JSONReader {
         }
     }
 
+    // Reads back a results document from JSONWriter, pretty or compact, as maps and
+    // lists of Long, Double, String, Boolean and null. Edge-id lists become List<Long>.
+    @SuppressWarnings("unchecked")
+    public static List<Map<String,Object>> readResults(String filename) {
+        try (BufferedReader r = Files.newBufferedReader(Paths.get(filename))) {
+            Object doc = new JSONTokenizer(r).parse();
+            if (!(doc instanceof Map) || !(((Map<String,Object>) doc).get("results") instanceof List))
+                throw new IllegalArgumentException("No results array in " + filename);
+            return (List<Map<String,Object>>) ((Map<String,Object>) doc).get("results");
+        } catch (IOException ex) {
+            throw new RuntimeException("Failed to read JSON: " + ex.getMessage(), ex);
+        }
+    }
+
+    // Parses a single graph object, such as one line of an NDJSON stream; null without an id.
+    public static GraphWithId parseGraph(String json) {
+        return parseGraphBlock(json);
+    }
+
     private static GraphWithId parseGraphBlock(String block) {
 
         Integer id = extractIntField(block, "\"id\"");
@@ -57,7 +80,7 @@ public class JSONReader {
         int nodesIdx = block.indexOf("\"nodes\"");
         if (nodesIdx >= 0) {
             int start = block.indexOf('[', nodesIdx);
-            int end = findMatchingBracket(block, start);
+            int end = arrayEnd(block, start, id, "nodes");
             String nodesContent = block.substring(start + 1, end);
 
             List<String> tokens = simpleSplitStrings(nodesContent);
@@ -69,22 +92,69 @@ public class JSONReader {
         int edgesIdx = block.indexOf("\"edges\"");
         if (edgesIdx >= 0) {
             int start = block.indexOf('[', edgesIdx);
-            int end = findMatchingBracket(block, start);
+            int end = arrayEnd(block, start, id, "edges");
             String edgesContent = block.substring(start + 1, end);
             List<String> edgeObjs = splitTopLevelObjects(edgesContent);
-            for (String eo : edgeObjs) {
+            for (int i = 0; i < edgeObjs.size(); i++) {
+                String eo = edgeObjs.get(i);
                 String from = extractStringField(eo, "\"from\"");
                 String to = extractStringField(eo, "\"to\"");
                 Double weight = extractDoubleField(eo, "\"weight\"");
                 if (from != null && to != null && weight != null) {
-                    g.edges.add(new EdgeTriple(from, to, weight));
+                    EdgeTriple et = new EdgeTriple(from, to, weight);
+                    et.index = i;
+                    g.edges.add(et);
                 }
             }
         }
 
+        int pointsIdx = block.indexOf("\"points\"");
+        if (pointsIdx >= 0) {
+            int start = block.indexOf('[', pointsIdx);
+            int end = arrayEnd(block, start, id, "points");
+            double[] xy = parseNumbers(block, start + 1, end);
+            if (xy.length % 2 != 0) throw new IllegalArgumentException("Graph " + id + ": points must be [x, y] pairs");
+            g.x = new double[xy.length / 2];
+            g.y = new double[xy.length / 2];
+            for (int i = 0; i < g.x.length; i++) {
+                g.x[i] = xy[2 * i];
+                g.y[i] = xy[2 * i + 1];
+            }
+        }
+
         return g;
     }
 
+    // Index of the bracket closing the array that starts at start; a graph cut off
+    // mid-array fails naming the field rather than with a bad substring range.
+    private static int arrayEnd(String block, int start, int id, String field) {
+        int end = start < 0 ? -1 : findMatchingBracket(block, start);
+        if (end < 0) throw new IllegalArgumentException("Graph " + id + ": unterminated \"" + field + "\" array");
+        return end;
+    }
+
+    // All numbers in s[from, to), in order. A hand-rolled scan rather than a regex, as
+    // point sets run to millions of coordinates.
+    private static double[] parseNumbers(String s, int from, int to) {
+        double[] out = new double[16];
+        int n = 0;
+        int i = from;
+        while (i < to) {
+            char c = s.charAt(i);
+            if (c != '-' && c != '+' && c != '.' && (c < '0' || c > '9')) { i++; continue; }
+            int j = i + 1;
+            while (j < to) {
+                c = s.charAt(j);
+                if ((c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '-' || c == '+') j++;
+                else break;
+            }
+            if (n == out.length) out = Arrays.copyOf(out, n * 2);
+            out[n++] = Double.parseDouble(s.substring(i, j));
+            i = j;
+        }
+        return Arrays.copyOf(out, n);
+    }
+
     private static Integer extractIntField(String s, String field) {
         int idx = s.indexOf(field);
         if (idx < 0) return null;
@@ -0,0 +1,110 @@
+package io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+// Reads the same input as JSONReader.readGraphs, but hands each edge to a Handler as it
+// is parsed instead of building the whole file, its EdgeTriples and their strings in
+// memory. It walks the document with JSONTokenizer, the parser behind
+// JSONReader.readResults, so both readers share one set of JSON rules and errors. A graph's "id" and "nodes" must come before its "edges", as GraphGenerator
+// writes them; other fields, such as "points", are skipped.
+public class JSONStreamReader {
+
+    public interface Handler {
+        void graph(int id, List<String> nodes);
+        void edge(String from, String to, double weight);
+        void end();
+    }
+
+    private final JSONTokenizer tok;
+
+    private JSONStreamReader(JSONTokenizer tok) {
+        this.tok = tok;
+    }
+
+    public static void readGraphs(String filename, Handler handler) {
+        try (BufferedReader r = Files.newBufferedReader(Paths.get(filename), StandardCharsets.UTF_8)) {
+            new JSONStreamReader(new JSONTokenizer(r)).document(handler);
+        } catch (IOException ex) {
+            throw new RuntimeException("Failed to read JSON: " + ex.getMessage(), ex);
+        }
+    }
+
+    private void document(Handler handler) throws IOException {
+        tok.expect('{');
+        if (tok.closes('}')) return;
+        do {
+            String key = tok.string();
+            tok.expect(':');
+            if (key.equals("graphs")) {
+                tok.expect('[');
+                if (!tok.closes(']')) {
+                    do { graph(handler); } while (tok.separator(']'));
+                }
+            } else {
+                tok.skipValue();
+            }
+        } while (tok.separator('}'));
+    }
+
+    private void graph(Handler handler) throws IOException {
+        tok.expect('{');
+        Integer id = null;
+        List<String> nodes = new ArrayList<>();
+        boolean started = false;
+        if (!tok.closes('}')) {
+            do {
+                String key = tok.string();
+                tok.expect(':');
+                if (key.equals("id")) {
+                    id = (int) number();
+                } else if (key.equals("nodes")) {
+                    tok.expect('[');
+                    if (!tok.closes(']')) {
+                        do { nodes.add(tok.string()); } while (tok.separator(']'));
+                    }
+                } else if (key.equals("edges")) {
+                    if (id == null) throw tok.error("\"id\" must come before \"edges\"");
+                    handler.graph(id, nodes);
+                    started = true;
+                    edges(handler);
+                } else {
+                    tok.skipValue();
+                }
+            } while (tok.separator('}'));
+        }
+        if (id == null) return;   // like readGraphs, a graph without an id is dropped
+        if (!started) handler.graph(id, nodes);
+        handler.end();
+    }
+
+    private void edges(Handler handler) throws IOException {
+        tok.expect('[');
+        if (tok.closes(']')) return;
+        do {
+            tok.expect('{');
+            String from = null, to = null;
+            double weight = Double.NaN;
+            if (!tok.closes('}')) {
+                do {
+                    String key = tok.string();
+                    tok.expect(':');
+                    if (key.equals("from")) from = tok.string();
+                    else if (key.equals("to")) to = tok.string();
+                    else if (key.equals("weight")) weight = number();
+                    else tok.skipValue();
+                } while (tok.separator('}'));
+            }
+            if (from != null && to != null && !Double.isNaN(weight)) handler.edge(from, to, weight);
+        } while (tok.separator(']'));
+    }
+
+    private double number() throws IOException {
+        return ((Number) tok.number()).doubleValue();
+    }
+}
@@ -0,0 +1,161 @@
+package io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Recursive-descent parser for the JSON this project reads and writes, over any Reader
+// with one character of lookahead. JSONReader.readResults parses whole documents with
+// parse(); JSONStreamReader walks a graphs document with the token-level methods, so
+// edges are handed on as they are read.
+class JSONTokenizer {
+    private final Reader in;
+    private int next;
+    private long offset = 0;
+
+    JSONTokenizer(Reader in) throws IOException {
+        this.in = in;
+        next = in.read();
+    }
+
+    // The whole input as one value: maps, lists, Long, Double, String, Boolean and null.
+    Object parse() throws IOException {
+        Object v = value();
+        if (skipSpace() >= 0) throw error("trailing characters");
+        return v;
+    }
+
+    Object value() throws IOException {
+        int c = skipSpace();
+        if (c < 0) throw error("unexpected end");
+        if (c == '{') return object();
+        if (c == '[') return array();
+        if (c == '"') return string();
+        if (c == 'n') { literal("null"); return null; }
+        if (c == 't') { literal("true"); return Boolean.TRUE; }
+        if (c == 'f') { literal("false"); return Boolean.FALSE; }
+        return number();
+    }
+
+    // Like value(), without building anything: for fields a caller does not want.
+    void skipValue() throws IOException {
+        int c = skipSpace();
+        if (c == '{') {
+            read();
+            if (closes('}')) return;
+            do {
+                string();
+                expect(':');
+                skipValue();
+            } while (separator('}'));
+        } else if (c == '[') {
+            read();
+            if (closes(']')) return;
+            do { skipValue(); } while (separator(']'));
+        } else {
+            value();
+        }
+    }
+
+    private Map<String,Object> object() throws IOException {
+        Map<String,Object> m = new LinkedHashMap<>();
+        expect('{');
+        if (closes('}')) return m;
+        do {
+            String key = string();
+            expect(':');
+            m.put(key, value());
+        } while (separator('}'));
+        return m;
+    }
+
+    private List<Object> array() throws IOException {
+        List<Object> list = new ArrayList<>();
+        expect('[');
+        if (closes(']')) return list;
+        do { list.add(value()); } while (separator(']'));
+        return list;
+    }
+
+    // Right after an opening bracket: consumes close and returns true when the
+    // object or array is empty.
+    boolean closes(char close) throws IOException {
+        if (skipSpace() != close) return false;
+        read();
+        return true;
+    }
+
+    // After a member or element: true on ',', false on the closing bracket (both consumed).
+    boolean separator(char close) throws IOException {
+        int c = skipSpace();
+        if (c == ',' || c == close) {
+            read();
+            return c == ',';
+        }
+        throw error("expected ',' or '" + close + "'");
+    }
+
+    String string() throws IOException {
+        expect('"');
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            int c = read();
+            if (c < 0) throw error("unterminated string");
+            if (c == '"') return sb.toString();
+            if (c == '\\') {
+                c = read();
+                if (c < 0) throw error("unterminated string");
+            }
+            sb.append((char) c);
+        }
+    }
+
+    // Long for integral literals, Double otherwise.
+    Object number() throws IOException {
+        skipSpace();
+        StringBuilder sb = new StringBuilder();
+        boolean integral = true;
+        while (next == '-' || next == '+' || next == '.' || next == 'e' || next == 'E' || (next >= '0' && next <= '9')) {
+            if (next == '.' || next == 'e' || next == 'E') integral = false;
+            sb.append((char) read());
+        }
+        if (sb.length() == 0) {
+            throw error(next < 0 ? "unexpected end" : "unexpected character '" + (char) next + "'");
+        }
+        try {
+            return integral ? (Object) Long.parseLong(sb.toString()) : (Object) Double.parseDouble(sb.toString());
+        } catch (NumberFormatException ex) {
+            throw error("bad number " + sb);
+        }
+    }
+
+    void expect(char c) throws IOException {
+        if (skipSpace() != c) throw error("expected '" + c + "'");
+        read();
+    }
+
+    private void literal(String word) throws IOException {
+        for (int i = 0; i < word.length(); i++) {
+            if (read() != word.charAt(i)) throw error("expected " + word);
+        }
+    }
+
+    int skipSpace() throws IOException {
+        while (next >= 0 && Character.isWhitespace(next)) read();
+        return next;
+    }
+
+    private int read() throws IOException {
+        int c = next;
+        next = in.read();
+        offset++;
+        return c;
+    }
+
+    IllegalArgumentException error(String msg) {
+        return new IllegalArgumentException("Bad JSON at offset " + offset + ": " + msg);
+    }
+}
@@ -28,6 +28,56 @@ public class JSONWriter {
         }
     }
 
+    // Same document without any whitespace; with edge-id lists instead of edge objects
+    // this is an order of magnitude smaller than writeResults.
+    public static void writeCompactResults(String outputFile, List<Map<String,Object>> results) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"results\":");
+        appendCompact(sb, results);
+        sb.append("}\n");
+        try {
+            Files.write(Paths.get(outputFile), sb.toString().getBytes());
+        } catch (IOException ex) {
+            throw new RuntimeException("Failed to write output JSON: " + ex.getMessage(), ex);
+        }
+    }
+
+    // Single-line form of one result, for line-oriented (NDJSON) output
+    public static String toJsonLine(Map<String,Object> result) {
+        StringBuilder sb = new StringBuilder();
+        appendCompact(sb, result);
+        return sb.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void appendCompact(StringBuilder sb, Object v) {
+        if (v instanceof Map) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<String,Object> e : ((Map<String,Object>) v).entrySet()) {
+                if (!first) sb.append(',');
+                sb.append('"').append(e.getKey()).append("\":");
+                appendCompact(sb, e.getValue());
+                first = false;
+            }
+            sb.append('}');
+        } else if (v instanceof List) {
+            sb.append('[');
+            List<Object> list = (List<Object>) v;
+            for (int i = 0; i < list.size(); i++) {
+                if (i > 0) sb.append(',');
+                appendCompact(sb, list.get(i));
+            }
+            sb.append(']');
+        } else if (v instanceof int[]) {
+            appendIds(sb, (int[]) v);
+        } else if (v instanceof double[]) {
+            appendNumbers(sb, (double[]) v);
+        } else {
+            sb.append(valueToJson(v, 0));
+        }
+    }
+
     // Simple conversion for the specific structure we produce (values can be maps, lists, numbers, strings)
     @SuppressWarnings("unchecked")
     private static String mapToJson(Map<String,Object> m, int indent) {
@@ -53,9 +103,29 @@ public class JSONWriter {
         if (v instanceof Number || v instanceof Boolean) return v.toString();
         if (v instanceof Map) return mapToJson((Map<String,Object>) v, indent);
         if (v instanceof List) return listToJson((List<Object>) v, indent);
+        if (v instanceof int[]) return appendIds(new StringBuilder(), (int[]) v).toString();
+        if (v instanceof double[]) return appendNumbers(new StringBuilder(), (double[]) v).toString();
         return "\"" + v.toString() + "\"";
     }
 
+    private static StringBuilder appendIds(StringBuilder sb, int[] ids) {
+        sb.append('[');
+        for (int i = 0; i < ids.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(ids[i]);
+        }
+        return sb.append(']');
+    }
+
+    private static StringBuilder appendNumbers(StringBuilder sb, double[] values) {
+        sb.append('[');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(values[i]);
+        }
+        return sb.append(']');
+    }
+
     private static String listToJson(List<Object> list, int indent) {
         StringBuilder sb = new StringBuilder();
         sb.append("[\n");
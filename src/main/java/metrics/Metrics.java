@@ -1,39 +1,89 @@
 package metrics;
 
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
+// Counters are LongAdders so one Metrics can be shared by concurrent workers; an
+// uncontended increment stays a single CAS on the base cell.
 public class Metrics {
-    private long ufFinds = 0;
-    private long ufUnions = 0;
-    private long pqOps = 0;
-    private long edgesConsidered = 0;
-    private long edgePushes = 0;
-    private long timeMs = 0;
-
-    public void incrUFFind() { ufFinds++; }
-    public void incrUFUnion() { ufUnions++; }
-    public void incrPQOp() { pqOps++; }
-    public void incrEdgesConsidered() { edgesConsidered++; }
-    public void incrEdgePushes() { edgePushes++; }
+
+    public enum Phase { GRAPH_BUILD, EDGE_SORT, UNION_FIND, HEAP_OPS, OUTPUT_FORMAT }
+
+    private final LongAdder ufFinds = new LongAdder();
+    private final LongAdder ufUnions = new LongAdder();
+    private final LongAdder pqOps = new LongAdder();
+    private final LongAdder edgesConsidered = new LongAdder();
+    private final LongAdder edgePushes = new LongAdder();
+    private final Map<Phase, LongAdder> phaseNanos = new EnumMap<>(Phase.class);
+    private volatile long timeMs = 0;
+
+    public Metrics() {
+        for (Phase p : Phase.values()) phaseNanos.put(p, new LongAdder());
+    }
+
+    public void incrUFFind() { ufFinds.increment(); }
+    public void incrUFUnion() { ufUnions.increment(); }
+    public void incrPQOp() { pqOps.increment(); }
+    public void incrEdgesConsidered() { edgesConsidered.increment(); }
+    public void incrEdgePushes() { edgePushes.increment(); }
 
     public void setTimeMs(long ms) { timeMs = ms; }
 
+    // Times a phase until the returned timer is closed and reports it to JFR.
+    public PhaseTimer time(Phase phase) { return new PhaseTimer(this, phase); }
+
+    // The same around a block, without an unused try-with-resources variable:
+    // metrics.time(Phase.EDGE_SORT, () -> sort(...)).
+    public void time(Phase phase, Runnable body) {
+        PhaseTimer t = time(phase);
+        try {
+            body.run();
+        } finally {
+            t.close();
+        }
+    }
+
+    public <T> T time(Phase phase, Supplier<T> body) {
+        PhaseTimer t = time(phase);
+        try {
+            return body.get();
+        } finally {
+            t.close();
+        }
+    }
+
+    public void addPhaseNanos(Phase phase, long nanos) { phaseNanos.get(phase).add(nanos); }
+
     public Map<String,Object> toMap() {
         Map<String,Object> m = new HashMap<>();
-        m.put("uf_finds", ufFinds);
-        m.put("uf_unions", ufUnions);
-        m.put("pq_ops", pqOps);
-        m.put("edges_considered", edgesConsidered);
-        m.put("edge_pushes", edgePushes);
+        m.put("uf_finds", getUfFinds());
+        m.put("uf_unions", getUfUnions());
+        m.put("pq_ops", getPqOps());
+        m.put("edges_considered", getEdgesConsidered());
+        m.put("edge_pushes", getEdgePushes());
         m.put("execution_time_ms", timeMs);
         return m;
     }
 
-    public long getUfFinds() { return ufFinds; }
-    public long getUfUnions() { return ufUnions; }
-    public long getPqOps() { return pqOps; }
-    public long getEdgesConsidered() { return edgesConsidered; }
-    public long getEdgePushes() { return edgePushes; }
+    // Nanoseconds per phase, in pipeline order, for the phases that were timed.
+    public Map<String,Object> phasesToMap() {
+        Map<String,Object> m = new LinkedHashMap<>();
+        for (Phase p : Phase.values()) {
+            long ns = getPhaseNanos(p);
+            if (ns > 0) m.put(p.name().toLowerCase(), ns);
+        }
+        return m;
+    }
+
+    public long getUfFinds() { return ufFinds.sum(); }
+    public long getUfUnions() { return ufUnions.sum(); }
+    public long getPqOps() { return pqOps.sum(); }
+    public long getEdgesConsidered() { return edgesConsidered.sum(); }
+    public long getEdgePushes() { return edgePushes.sum(); }
+    public long getPhaseNanos(Phase phase) { return phaseNanos.get(phase).sum(); }
     public long getTimeMs() { return timeMs; }
 }
@@ -0,0 +1,26 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+// Enabled by default in recordings, e.g.
+//     java -XX:StartFlightRecording=filename=mst.jfr -cp target/classes cli.BenchmarkRunner ...
+//     jfr print --events mst.Phase mst.jfr
+@Name("mst.Phase")
+@Label("MST Phase")
+@Category("MST")
+@Description("A timed phase of graph loading, an MST algorithm or result formatting")
+class PhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+
+    // the part of the event's span spent in the phase: all of it for a block, less for
+    // a phase interleaved with other work, such as Prim's heap operations
+    @Label("Timed")
+    @Timespan(Timespan.NANOSECONDS)
+    long timed;
+}
@@ -0,0 +1,46 @@
+package metrics;
+
+// One timed phase, usually through metrics.time(Phase.EDGE_SORT, () -> ...).
+// The elapsed time is added to the Metrics and, when a JFR recording has the
+// mst.Phase event enabled, committed as an event spanning the block. A phase that is
+// interleaved with other work pauses the timer around that work; the event still
+// spans the whole block and its "timed" field holds the time actually in the phase.
+public final class PhaseTimer implements AutoCloseable {
+    private final Metrics metrics;
+    private final Metrics.Phase phase;
+    private final PhaseEvent event = new PhaseEvent();
+    private long start;
+    private long timed = 0;
+    private boolean running = true;
+
+    PhaseTimer(Metrics metrics, Metrics.Phase phase) {
+        this.metrics = metrics;
+        this.phase = phase;
+        event.begin();
+        start = System.nanoTime();
+    }
+
+    public void pause() {
+        if (!running) return;
+        timed += System.nanoTime() - start;
+        running = false;
+    }
+
+    public void resume() {
+        if (running) return;
+        start = System.nanoTime();
+        running = true;
+    }
+
+    @Override
+    public void close() {
+        pause();
+        metrics.addPhaseNanos(phase, timed);
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = phase.name();
+            event.timed = timed;
+            event.commit();
+        }
+    }
+}